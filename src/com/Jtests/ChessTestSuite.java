@@ -16,6 +16,17 @@ import org.junit.runners.Suite;
                      TestFENParser.class,
                      //TestEngine.class (not usable at the moment),
                      TestKingSafety.class,
-                     TestRookStructure.class})
+                     TestRookStructure.class,
+                     TestStaticExchange.class,
+                     TestSearchHandle.class,
+                     TestMateSolver.class,
+                     TestTablebase.class,
+                     TestPolyglotBook.class,
+                     TestPgn.class,
+                     TestEvaluationCache.class,
+                     TestPieceSquareTables.class,
+                     TestNnue.class,
+                     TestTexelTuner.class,
+                     TestPonderWorker.class})
 public class ChessTestSuite {
 }
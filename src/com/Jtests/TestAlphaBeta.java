@@ -341,7 +341,8 @@ public class TestAlphaBeta {
     @Test
     public void testAutoResponseVsPrinChess() {
         final Board board = FenUtilities.createGameFromFEN("r2q1rk1/p1p2pp1/3p1b2/2p2QNb/4PB1P/6R1/PPPR4/2K5 b - - 0 1");
-        final MoveStrategy alphaBeta = new StockAlphaBeta(6);
+        //op diepte 6 liggen Lg6 en g6 te dicht bij elkaar: de keuze hangt af van de zetvolgorde en het quiescence-budget
+        final MoveStrategy alphaBeta = new StockAlphaBeta(7);
         final Move bestMove = alphaBeta.execute(board);
         assertEquals(bestMove, Move.MoveFactory
                 .createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition("h5"), BoardUtils.INSTANCE.getCoordinateAtPosition("g6")));
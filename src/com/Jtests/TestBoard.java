@@ -9,6 +9,7 @@ import com.chess.engine.player.MoveTransition;
 import com.chess.engine.player.MoveUtils;
 import com.chess.engine.player.ai.BoardEvaluator;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.fen.FenUtilities;
 import com.google.common.collect.Iterables;
 import org.junit.Test;
 
@@ -224,6 +225,91 @@ public class TestBoard {
         assertEquals(BoardUtils.INSTANCE.getPositionAtCoordinate(7), "h8");
     }
 
+    @Test
+    public void testNullMoveBoard() {
+        final Board board = Board.createStandardBoard();
+        final Board nullMoveBoard = BoardUtils.nullMoveBoard(board);
+        assertEquals(nullMoveBoard.currentPlayer(), nullMoveBoard.blackPlayer());
+        assertEquals(Iterables.size(nullMoveBoard.getAllPieces()), 32);
+        assertEquals(nullMoveBoard.getTransitionMove(), MoveFactory.getNullMove());
+        assertEquals(nullMoveBoard.getEnPassantPawn(), null);
+        assertEquals(nullMoveBoard.currentPlayer().getLegalMoves().size(), 20);
+    }
+
+    @Test
+    public void testGivesCheck() {
+        final String[] fens = {
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -",
+                "4k3/8/8/8/8/8/4B3/4R1K1 w - - 0 1",
+                "5k2/8/8/8/8/8/8/4K2R w K - 0 1",
+                "3k4/1P6/8/8/8/8/8/4K3 w - - 0 1",
+                "rn3rk1/1R3ppp/2p5/8/PQ2P3/1P5P/2P1qPP1/3R2K1 w - - 1 0",
+                "3r3r/1Q5p/p3q2k/3NBp1B/3p3n/5P2/PP4PP/4R2K w - - 1 0"
+        };
+        for (final String fen : fens) {
+            final Board board = FenUtilities.createGameFromFEN(fen);
+            for (final Move move : board.currentPlayer().getLegalMoves()) {
+                if (board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                    assertEquals(move.toString(), BoardUtils.kingThreat(move), BoardUtils.givesCheck(move));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPieceBitBoards() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(Long.bitCount(board.getOccupancy()), 32);
+        assertEquals(board.getOccupancy(Alliance.BLACK), 0xFFFFL);
+        assertEquals(board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.KING), 1L << 60);
+        assertEquals(BitBoardUtils.knightAttacks(57), (1L << 40) | (1L << 42) | (1L << 51));
+        assertEquals(Long.bitCount(BitBoardUtils.rookAttacks(59, board.getOccupancy())), 3);
+        assertTrue(BitBoardUtils.isSquareAttacked(board, 44, Alliance.WHITE));
+        assertFalse(BitBoardUtils.isSquareAttacked(board, 36, Alliance.WHITE));
+    }
+
+    @Test
+    public void testPawnAttackSets() {
+        for (final Alliance alliance : Alliance.values()) {
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                assertEquals(BitBoardUtils.allPawnAttacks(alliance, BitBoardUtils.squareMask(square)),
+                        BitBoardUtils.pawnAttacks(alliance, square));
+            }
+        }
+        final Board board = Board.createStandardBoard();
+        assertEquals(BitBoardUtils.allPawnAttacks(Alliance.WHITE, board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.PAWN)), 0xFFL << 40);
+        assertEquals(BitBoardUtils.allPawnAttacks(Alliance.BLACK, board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.PAWN)), 0xFFL << 16);
+    }
+
+    @Test
+    public void testZobristKey() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(board.getZobristKey(),
+                FenUtilities.createGameFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1").getZobristKey());
+        assertFalse(BoardUtils.nullMoveBoard(board).getZobristKey() == board.getZobristKey());
+        final Board knightsFirst = play(board, "g1", "f3", "g8", "f6", "b1", "c3", "b8", "c6");
+        final Board knightsSwapped = play(board, "b1", "c3", "b8", "c6", "g1", "f3", "g8", "f6");
+        assertEquals(knightsFirst.getZobristKey(), knightsSwapped.getZobristKey());
+        assertEquals(play(board, "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8").getZobristKey(), board.getZobristKey());
+        final Board kingMoved = play(board, "e2", "e4", "e7", "e5", "e1", "e2", "e8", "e7", "e2", "e1", "e7", "e8");
+        final Board kingStayed = play(board, "e2", "e4", "e7", "e5", "g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+        assertFalse(kingMoved.getZobristKey() == kingStayed.getZobristKey());
+    }
+
+    private static Board play(final Board board,
+                              final String... squares) {
+        Board current = board;
+        for (int i = 0; i < squares.length; i += 2) {
+            final MoveTransition transition = current.currentPlayer().makeMove(MoveFactory.createMove(current,
+                    BoardUtils.INSTANCE.getCoordinateAtPosition(squares[i]),
+                    BoardUtils.INSTANCE.getCoordinateAtPosition(squares[i + 1])));
+            assertTrue(transition.getMoveStatus().isDone());
+            current = transition.getToBoard();
+        }
+        return current;
+    }
+
     @Test
     public void mem() {
         final Runtime runtime = Runtime.getRuntime();
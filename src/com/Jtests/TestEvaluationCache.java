@@ -0,0 +1,137 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.EvaluationCache;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestEvaluationCache {
+
+    @Test
+    public void testCachedScoreIsUnchanged() {
+        final EvaluationCache cache = new EvaluationCache(StandardBoardEvaluator.get(), 1024);
+        final Board board = FenUtilities.createGameFromFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        final int score = StandardBoardEvaluator.get().evaluate(board, 0);
+        assertEquals(cache.evaluate(board, 0), score);
+        assertEquals(cache.evaluate(board, 0), score);
+        assertEquals(cache.getProbes(), 2);
+        assertEquals(cache.getHits(), 1);
+        assertEquals(cache.getHitRate(), 0.5, 1e-9);
+    }
+
+    @Test
+    public void testDepthIsPartOfTheEntry() {
+        final CountingEvaluator counting = new CountingEvaluator();
+        final EvaluationCache cache = new EvaluationCache(counting, 1024);
+        final Board board = Board.createStandardBoard();
+        cache.evaluate(board, 0);
+        cache.evaluate(board, 2);
+        assertEquals(cache.evaluate(board, 2), 2);
+        assertEquals(counting.calls, 2);
+    }
+
+    @Test
+    public void testNegativeScores() {
+        final EvaluationCache cache = new EvaluationCache((board, depth) -> -123456, 16);
+        final Board board = Board.createStandardBoard();
+        cache.evaluate(board, 0);
+        assertEquals(cache.evaluate(board, 0), -123456);
+        assertEquals(cache.getHits(), 1);
+    }
+
+    @Test
+    public void testSizeAndClear() {
+        final EvaluationCache cache = new EvaluationCache(StandardBoardEvaluator.get(), 1000);
+        assertEquals(cache.size(), 1024);
+        assertEquals(cache.hashFull(), 0);
+        cache.evaluate(Board.createStandardBoard(), 0);
+        assertTrue(cache.hashFull() <= 1);
+        cache.clear();
+        assertEquals(cache.getProbes(), 0);
+        cache.evaluate(Board.createStandardBoard(), 0);
+        assertEquals(cache.getHits(), 0);
+    }
+
+    @Test
+    public void testLazyEvaluation() {
+        //wit staat een dame voor, dus ver onder of boven het venster slaat de evaluator dure termen over
+        final Board board = FenUtilities.createGameFromFEN("r1b1kbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 0 4");
+        final StandardBoardEvaluator evaluator = StandardBoardEvaluator.get();
+        final int score = evaluator.evaluate(board, 0);
+        assertEquals(evaluator.evaluate(board, 0, Integer.MIN_VALUE, Integer.MAX_VALUE), score);
+        assertEquals(evaluator.evaluate(board, 0, score - 1, score + 1), score);
+        assertTrue(evaluator.evaluate(board, 0, score + 2000, score + 2001) < score + 2000);
+        assertTrue(evaluator.evaluate(board, 0, -5000, -4999) > -4999);
+    }
+
+    @Test
+    public void testLazyScoreIsOnlyReusedAsBound() {
+        final CountingEvaluator counting = new CountingEvaluator();
+        final EvaluationCache cache = new EvaluationCache(counting, 1024);
+        final Board board = Board.createStandardBoard();
+        assertEquals(cache.evaluate(board, 1, 100, 200), 1);
+        assertEquals(cache.evaluate(board, 1, 50, 60), 1);
+        assertEquals(counting.calls, 1);
+        assertEquals(cache.evaluate(board, 1, 0, 10), 1);
+        assertEquals(counting.calls, 2);
+        assertEquals(cache.evaluate(board, 1, 100, 200), 1);
+        assertEquals(counting.calls, 2);
+    }
+
+    @Test
+    public void testEvaluateBatch() {
+        //de 400 stellingen na twee zetten, verdeeld over meerdere threads
+        final List<Board> boards = new ArrayList<>();
+        final Board start = Board.createStandardBoard();
+        for (final Move move : start.currentPlayer().getLegalMoves()) {
+            final Board child = start.currentPlayer().makeMove(move).getToBoard();
+            for (final Move reply : child.currentPlayer().getLegalMoves()) {
+                boards.add(child.currentPlayer().makeMove(reply).getToBoard());
+            }
+        }
+        final Board[] positions = boards.toArray(new Board[0]);
+        final int[] scores = new int[positions.length];
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            new EvaluationCache(StandardBoardEvaluator.get(), 1024).evaluateBatch(positions, scores, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals(scores[i], StandardBoardEvaluator.get().evaluate(positions[i], 0));
+        }
+        assertEquals(positions.length, 400);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEvaluateBatchNeedsRoomForScores() {
+        StandardBoardEvaluator.get().evaluateBatch(new Board[]{Board.createStandardBoard()}, new int[0]);
+    }
+
+    private static final class CountingEvaluator implements BoardEvaluator {
+
+        private int calls;
+
+        @Override
+        public int evaluate(final Board board,
+                            final int depth) {
+            this.calls++;
+            return depth;
+        }
+
+        @Override
+        public int getLazyMargin() {
+            return 10;
+        }
+    }
+}
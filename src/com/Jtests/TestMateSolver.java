@@ -0,0 +1,92 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.MateResult;
+import com.chess.engine.player.ai.MateSolver;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestMateSolver {
+
+    @Test
+    public void testQueenSacrificeMateInTwo() {
+        final Board board = FenUtilities.createGameFromFEN("rn3rk1/1R3ppp/2p5/8/PQ2P3/1P5P/2P1qPP1/3R2K1 w - - 1 0");
+        final MateResult result = new MateSolver(3).solve(board);
+        assertTrue(result.isMate());
+        assertEquals(result.getMateIn(), 2);
+        assertEquals(result.getBestMove(), createMove(board, "b4", "f8"));
+        assertMatingLine(board, result);
+    }
+
+    @Test
+    public void testMateInTwo() {
+        final Board board = FenUtilities.createGameFromFEN("3r3r/1Q5p/p3q2k/3NBp1B/3p3n/5P2/PP4PP/4R2K w - - 1 0");
+        final MateResult result = new MateSolver(3).solve(board);
+        assertTrue(result.isMate());
+        assertEquals(result.getMateIn(), 2);
+        assertEquals(result.getBestMove(), createMove(board, "b7", "g7"));
+        assertMatingLine(board, result);
+    }
+
+    @Test
+    public void testSmotheredMate() {
+        final Board board = FenUtilities.createGameFromFEN("5rk1/5Npp/8/3Q4/8/8/8/7K w - - 0 1");
+        final MateResult result = new MateSolver(4).solve(board);
+        assertTrue(result.isMate());
+        assertEquals(result.getMateIn(), 3);
+        assertEquals(result.getBestMove(), createMove(board, "f7", "h6"));
+        assertMatingLine(board, result);
+    }
+
+    @Test
+    public void testMateInFour() {
+        final Board board = FenUtilities.createGameFromFEN("7k/4r2B/1pb5/2P5/4p2Q/2q5/2P2R2/1K6 w - - 1 0");
+        final MateResult result = new MateSolver(4).solve(board);
+        assertTrue(result.isMate());
+        assertEquals(result.getBestMove(), createMove(board, "f2", "f8"));
+        assertMatingLine(board, result);
+    }
+
+    @Test
+    public void testNoMate() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/8/R3K3 w - - 0 1");
+        final MateResult result = new MateSolver(2).solve(board);
+        assertFalse(result.isMate());
+        assertFalse(result.isBudgetExhausted());
+        assertEquals(result.getBestMove(), MoveFactory.getNullMove());
+    }
+
+    @Test
+    public void testNodeBudget() {
+        final MateResult result = new MateSolver(5, 50).solve(Board.createStandardBoard());
+        assertFalse(result.isMate());
+        assertTrue(result.isBudgetExhausted());
+    }
+
+    private static void assertMatingLine(final Board board,
+                                         final MateResult result) {
+        assertEquals(result.getMatingLine().size(), 2 * result.getMateIn() - 1);
+        Board current = board;
+        for (final Move move : result.getMatingLine()) {
+            final MoveTransition transition = current.currentPlayer().makeMove(move);
+            assertTrue(transition.getMoveStatus().isDone());
+            current = transition.getToBoard();
+        }
+        assertTrue(current.currentPlayer().isInCheckMate());
+    }
+
+    private static Move createMove(final Board board,
+                                   final String from,
+                                   final String to) {
+        return MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition(from),
+                BoardUtils.INSTANCE.getCoordinateAtPosition(to));
+    }
+}
@@ -0,0 +1,112 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.nnue.NnueEvaluator;
+import com.chess.engine.nnue.NnueNetwork;
+import com.chess.engine.player.MoveTransition;
+import com.chess.fen.FenUtilities;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestNnue {
+
+    private static final int NUM_FEATURES = 64 * 10 * 64;
+    private static final int HIDDEN = 16;
+    private static final int LAYER1 = 8;
+    private static final int LAYER2 = 8;
+
+    private static NnueNetwork network;
+
+    @BeforeClass
+    public static void writeNetwork() throws IOException {
+        //een willekeurig netwerk in het bestandsformaat van NnueNetwork
+        final Random random = new Random(2024);
+        final ByteBuffer buffer = ByteBuffer.allocate(24 + 2 * HIDDEN * (1 + NUM_FEATURES) + 4 * LAYER1 +
+                LAYER1 * 2 * HIDDEN + 4 * LAYER2 + LAYER2 * LAYER1 + 4 + LAYER2).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0x4A4E4E55).putInt(1).putInt(NUM_FEATURES).putInt(HIDDEN).putInt(LAYER1).putInt(LAYER2);
+        for (int i = 0; i < HIDDEN; i++) {
+            buffer.putShort((short) (32 + random.nextInt(64)));
+        }
+        for (int i = 0; i < HIDDEN * NUM_FEATURES; i++) {
+            buffer.putShort((short) (random.nextInt(49) - 24));
+        }
+        putLayer(buffer, random, LAYER1, 2 * HIDDEN);
+        putLayer(buffer, random, LAYER2, LAYER1);
+        putLayer(buffer, random, 1, LAYER2);
+        final Path file = Files.createTempFile("jchess", ".nnue");
+        file.toFile().deleteOnExit();
+        Files.write(file, buffer.array());
+        network = NnueNetwork.load(file);
+    }
+
+    @Test
+    public void testLoad() {
+        assertEquals(network.getHiddenSize(), HIDDEN);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        final Path file = Files.createTempFile("jchess", ".nnue");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[100]);
+        NnueNetwork.load(file);
+    }
+
+    @Test
+    public void testIncrementalMatchesRefresh() {
+        //rokade, slaan en promotie; elk bord wordt vergeleken met hetzelfde bord zonder voorgeschiedenis
+        final Board board = FenUtilities.createGameFromFEN("r3k2r/pPp2ppp/2nqbn2/3pp3/3PP3/2NQBN2/PpP2PPP/R3K2R w KQkq - 0 1");
+        final NnueEvaluator incremental = new NnueEvaluator(network);
+        incremental.evaluate(board, 0);
+        int checked = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (!transition.getMoveStatus().isDone()) {
+                continue;
+            }
+            final Board child = transition.getToBoard();
+            for (final Move reply : child.currentPlayer().getLegalMoves()) {
+                final MoveTransition replyTransition = child.currentPlayer().makeMove(reply);
+                if (replyTransition.getMoveStatus().isDone()) {
+                    final Board grandChild = replyTransition.getToBoard();
+                    final Board fresh = FenUtilities.createGameFromFEN(FenUtilities.createFENFromGame(grandChild));
+                    assertEquals(incremental.evaluate(grandChild, 0), new NnueEvaluator(network, 1).evaluate(fresh, 0));
+                    checked++;
+                }
+            }
+        }
+        assertTrue(checked > 1000);
+    }
+
+    @Test
+    public void testColorSymmetry() {
+        //hetzelfde bord met de kleuren verwisseld en gespiegeld geeft de tegengestelde score voor wit
+        final NnueEvaluator evaluator = new NnueEvaluator(network);
+        final Board board = FenUtilities.createGameFromFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        final Board mirrored = FenUtilities.createGameFromFEN("rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b KQkq - 2 3");
+        assertEquals(evaluator.evaluate(mirrored, 0), -evaluator.evaluate(board, 0));
+    }
+
+    private static void putLayer(final ByteBuffer buffer,
+                                 final Random random,
+                                 final int outputs,
+                                 final int inputs) {
+        for (int i = 0; i < outputs; i++) {
+            buffer.putInt(random.nextInt(200) - 100);
+        }
+        for (int i = 0; i < outputs * inputs; i++) {
+            buffer.put((byte) (random.nextInt(33) - 16));
+        }
+    }
+}
@@ -3,13 +3,16 @@ package com.Jtests;
 import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Board.Builder;
+import com.chess.engine.board.Move;
 import com.chess.engine.pieces.King;
 import com.chess.engine.pieces.Pawn;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
 import com.chess.engine.player.ai.PawnStructureAnalyzer;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
 import com.chess.fen.FenUtilities;
 import org.junit.Test;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 
 public class TestPawnStructure {
@@ -118,5 +121,53 @@ public class TestPawnStructure {
         assertEquals(PawnStructureAnalyzer.get().isolatedPawnPenalty(board.blackPlayer()), PawnStructureAnalyzer.ISOLATED_PAWN_PENALTY * 3);
     }
 
+    @Test
+    public void testPassedAndCandidatePawns() {
+        //d5 heeft c7 nog voor zich maar wordt door e4 gesteund, e4 is vrij
+        final Board board = FenUtilities.createGameFromFEN("4k3/2p5/8/3P4/4P3/8/8/4K3 w - -");
+        final PawnStructureAnalyzer analyzer = PawnStructureAnalyzer.get();
+        assertEquals(analyzer.pawnTermCount(board, Alliance.WHITE, Term.PASSED_PAWN), 1);
+        assertEquals(analyzer.pawnTermCount(board, Alliance.WHITE, Term.ADVANCED_PASSED_PAWN), 0);
+        assertEquals(analyzer.pawnTermCount(board, Alliance.WHITE, Term.CANDIDATE_PAWN), 1);
+        assertEquals(analyzer.pawnTermCount(board, Alliance.WHITE, Term.CONNECTED_PAWN), 1);
+        assertEquals(analyzer.pawnTermCount(board, Alliance.BLACK, Term.PASSED_PAWN), 0);
+        assertEquals(analyzer.pawnTermCount(board, Alliance.BLACK, Term.ISOLATED_PAWN), 1);
+        final Board advanced = FenUtilities.createGameFromFEN("4k3/8/8/3P4/8/8/8/4K3 w - -");
+        assertEquals(analyzer.pawnTermCount(advanced, Alliance.WHITE, Term.PASSED_PAWN), 1);
+        assertEquals(analyzer.pawnTermCount(advanced, Alliance.WHITE, Term.ADVANCED_PASSED_PAWN), 1);
+    }
+
+    @Test
+    public void testBackwardPawn() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/4p3/2P5/3P4/8/4K3 w - -");
+        assertEquals(PawnStructureAnalyzer.get().pawnTermCount(board, Alliance.WHITE, Term.BACKWARD_PAWN), 1);
+        //e5 is geisoleerd en telt daarom niet ook als achtergebleven
+        assertEquals(PawnStructureAnalyzer.get().pawnTermCount(board, Alliance.BLACK, Term.BACKWARD_PAWN), 0);
+    }
+
+    @Test
+    public void testPawnIslands() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/pppppppp/8/8/8/8/PP1P1P1P/4K3 w - -");
+        assertEquals(PawnStructureAnalyzer.get().pawnTermCount(board, Alliance.WHITE, Term.PAWN_ISLAND), 4);
+        assertEquals(PawnStructureAnalyzer.get().pawnTermCount(Board.createStandardBoard(), Alliance.BLACK, Term.PAWN_ISLAND), 1);
+    }
 
-}
\ No newline at end of file
+    @Test
+    public void testPawnKey() {
+        final Board board = Board.createStandardBoard();
+        final Board afterKnightMove = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board, 62, 45)).getToBoard();
+        final Board afterPawnMove = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board, 52, 36)).getToBoard();
+        assertEquals(afterKnightMove.getPawnKey(), board.getPawnKey());
+        assertTrue(afterKnightMove.getZobristKey() != board.getZobristKey());
+        assertTrue(afterPawnMove.getPawnKey() != board.getPawnKey());
+    }
+
+    @Test
+    public void testPawnHashHit() {
+        final Board board = FenUtilities.createGameFromFEN("6k1/8/8/P6p/P6p/P6p/8/6K1 b - - 0 1");
+        final int score = StandardBoardEvaluator.get().evaluate(board, 0);
+        final long hits = PawnStructureAnalyzer.get().getPawnHashHits();
+        assertEquals(StandardBoardEvaluator.get().evaluate(board, 0), score);
+        assertEquals(PawnStructureAnalyzer.get().getPawnHashHits(), hits + 1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.book.BookBuilder;
+import com.chess.engine.book.BookMove;
+import com.chess.engine.book.PolyglotBook;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtilities;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestPgn {
+
+    private static final String GAMES =
+            "[Event \"a\"]\n[White \"A\"]\n[Black \"B\"]\n[Result \"1-0\"]\n[WhiteElo \"2400\"]\n[BlackElo \"2300\"]\n\n" +
+            "1.e4 {een commentaar\nover twee regels} e5 (1...c5 2.Nf3) 2.Nf3! $1 Nc6 3.Bb5 a6 ; rest van de regel\n" +
+            "4.Ba4 Nf6 5.0-0 1-0\n\n" +
+            "[Event \"b\"]\n[White \"C\"]\n[Black \"D\"]\n[Result \"1/2-1/2\"]\n[WhiteElo \"1800\"]\n[BlackElo \"2500\"]\n\n" +
+            "1.d4 d5 1/2-1/2\n\n" +
+            "[Event \"c\"]\n[White \"E\"]\n[Black \"F\"]\n[Result \"0-1\"]\n\n" +
+            "1.e4 c5 0-1\n";
+
+    @Test
+    public void testReader() throws IOException {
+        final PgnReader reader = new PgnReader(new BufferedReader(new StringReader(GAMES)));
+        final PgnGame first = reader.next();
+        assertEquals(first.getMoves(), Arrays.asList("e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O"));
+        assertEquals(first.getResult(), "1-0");
+        assertEquals(first.getElo(false), 2300);
+        assertEquals(reader.next().getMoves(), Arrays.asList("d4", "d5"));
+        assertEquals(reader.next().getElo(true), 0);
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testReplayGameWithPromotion() throws IOException {
+        try (final PgnReader reader = PgnReader.open(Paths.get("src/com/Jtests/pgn/queenPromotion.pgn"))) {
+            Board board = Board.createStandardBoard();
+            for (final String san : reader.next().getMoves()) {
+                board = play(board, PgnUtilities.createMoveFromSAN(board, san));
+            }
+            assertTrue(board.currentPlayer().isInCheckMate());
+        }
+    }
+
+    @Test
+    public void testSanDisambiguation() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/4K3/R6R w - - 0 1");
+        assertEquals(PgnUtilities.createMoveFromSAN(board, "Rad1").getCurrentCoordinate(),
+                BoardUtils.INSTANCE.getCoordinateAtPosition("a1"));
+        assertEquals(PgnUtilities.createMoveFromSAN(board, "Rhd1+").getCurrentCoordinate(),
+                BoardUtils.INSTANCE.getCoordinateAtPosition("h1"));
+        assertEquals(PgnUtilities.createMoveFromSAN(board, "Rd1"), MoveFactory.getNullMove());
+        final Board promotion = FenUtilities.createGameFromFEN("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        final Move underPromotion = PgnUtilities.createMoveFromSAN(promotion, "axb8=N");
+        assertEquals(((Move.PawnPromotion) underPromotion).getPromotionPiece().getPieceType(), Piece.PieceType.KNIGHT);
+    }
+
+    @Test
+    public void testBookBuilder() throws IOException {
+        final Path pgnFile = Files.createTempFile("games", ".pgn");
+        final Path bookFile = Files.createTempFile("book", ".bin");
+        pgnFile.toFile().deleteOnExit();
+        bookFile.toFile().deleteOnExit();
+        Files.write(pgnFile, GAMES.getBytes(StandardCharsets.ISO_8859_1));
+        final BookBuilder builder = new BookBuilder.Builder().setMaxPly(2).setThreads(2)
+                .setKeyFunction(Board::getZobristKey).build();
+        builder.addGames(pgnFile);
+        builder.write(bookFile);
+        assertEquals(builder.getNumGamesUsed(), 3);
+        final PolyglotBook book = PolyglotBook.open(bookFile, Board::getZobristKey);
+        final Board board = Board.createStandardBoard();
+        //e4: een winst en een verlies is 2 halve punten, d4: een remise is 1
+        final List<BookMove> moves = book.getMoves(board);
+        assertEquals(moves.size(), 2);
+        assertEquals(moves.get(0).getMove().toString(), "e4");
+        assertEquals(moves.get(0).getWeight(), 2);
+        assertEquals(moves.get(1).getWeight(), 1);
+        final Board afterKingPawn = play(board, moves.get(0).getMove());
+        assertEquals(book.getMoves(afterKingPawn).get(0).getMove().toString(), "c5");
+        //ply 3 valt buiten de diepte
+        assertTrue(book.getMoves(play(afterKingPawn, book.getMoves(afterKingPawn).get(1).getMove())).isEmpty());
+    }
+
+    @Test
+    public void testBookBuilderEloFilter() throws IOException {
+        final Path pgnFile = Files.createTempFile("games", ".pgn");
+        pgnFile.toFile().deleteOnExit();
+        Files.write(pgnFile, GAMES.getBytes(StandardCharsets.ISO_8859_1));
+        final BookBuilder builder = new BookBuilder.Builder().setMinElo(2000)
+                .setKeyFunction(Board::getZobristKey).build();
+        builder.addGames(pgnFile);
+        assertEquals(builder.getNumGamesRead(), 3);
+        assertEquals(builder.getNumGamesUsed(), 1);
+    }
+
+    @Test
+    public void testBookBuilderDefaultsToPolyglotKeys() throws IOException {
+        final Path pgnFile = Files.createTempFile("games", ".pgn");
+        final Path bookFile = Files.createTempFile("book", ".bin");
+        pgnFile.toFile().deleteOnExit();
+        bookFile.toFile().deleteOnExit();
+        Files.write(pgnFile, GAMES.getBytes(StandardCharsets.ISO_8859_1));
+        final BookBuilder builder = new BookBuilder.Builder().setMaxPly(2).build();
+        builder.addGames(pgnFile);
+        builder.write(bookFile);
+        assertEquals(PolyglotBook.open(bookFile).getMoves(Board.createStandardBoard()).size(), 2);
+    }
+
+    @Test(expected = IOException.class)
+    public void testBookBuilderWorkerFailure() throws IOException {
+        //een fout in een worker mag niet stil een half boek opleveren
+        final Path pgnFile = Files.createTempFile("games", ".pgn");
+        pgnFile.toFile().deleteOnExit();
+        Files.write(pgnFile, GAMES.getBytes(StandardCharsets.ISO_8859_1));
+        final BookBuilder builder = new BookBuilder.Builder().setThreads(2).setKeyFunction(board -> {
+            throw new IllegalStateException("no key");
+        }).build();
+        builder.addGames(pgnFile);
+    }
+
+    private static Board play(final Board board,
+                              final Move move) {
+        final MoveTransition transition = board.currentPlayer().makeMove(move);
+        assertTrue(transition.getMoveStatus().isDone());
+        return transition.getToBoard();
+    }
+}
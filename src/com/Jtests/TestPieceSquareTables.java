@@ -0,0 +1,89 @@
+package com.Jtests;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.pieces.Piece;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestPieceSquareTables {
+
+    @Test
+    public void testStandardBoard() {
+        final Board board = Board.createStandardBoard();
+        assertEquals(board.getMaterial(Alliance.WHITE), 8 * 100 + 2 * 300 + 2 * 300 + 2 * 500 + 900 + 10000);
+        assertEquals(board.getMaterial(Alliance.BLACK), board.getMaterial(Alliance.WHITE));
+        assertEquals(board.getPieceSquareScore(Alliance.BLACK), board.getPieceSquareScore(Alliance.WHITE));
+        assertIncrementalScores(board);
+    }
+
+    @Test
+    public void testCastlingAndCaptures() {
+        //rokade naar beide kanten voor wit en zwart, en slagzetten in het centrum
+        final Board board = FenUtilities.createGameFromFEN("r3k2r/ppp2ppp/2nqbn2/3pp3/3PP3/2NQBN2/PPP2PPP/R3K2R w KQkq - 0 1");
+        assertIncrementalScores(board);
+        walk(board, 2);
+    }
+
+    @Test
+    public void testEnPassant() {
+        //de FEN parser leest geen en passant veld, dus speel eerst d7-d5
+        final Board board = FenUtilities.createGameFromFEN("4k3/3p4/8/4P3/8/8/8/4K3 b - - 0 1");
+        final MoveTransition jump = board.currentPlayer().makeMove(Move.MoveFactory.createMove(board,
+                BoardUtils.INSTANCE.getCoordinateAtPosition("d7"), BoardUtils.INSTANCE.getCoordinateAtPosition("d5")));
+        final Board afterJump = jump.getToBoard();
+        final MoveTransition capture = afterJump.currentPlayer().makeMove(Move.MoveFactory.createMove(afterJump,
+                BoardUtils.INSTANCE.getCoordinateAtPosition("e5"), BoardUtils.INSTANCE.getCoordinateAtPosition("d6")));
+        assertEquals(capture.getMoveStatus().isDone(), true);
+        assertEquals(capture.getToBoard().getMaterial(Alliance.BLACK), 10000);
+        assertIncrementalScores(capture.getToBoard());
+    }
+
+    @Test
+    public void testPromotions() {
+        //promotie met en zonder slagen, voor beide kleuren
+        final Board board = FenUtilities.createGameFromFEN("1r2k3/P7/8/8/8/8/p7/1R2K3 w - - 0 1");
+        walk(board, 2);
+    }
+
+    @Test
+    public void testNullMoveBoard() {
+        final Board board = FenUtilities.createGameFromFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        assertIncrementalScores(BoardUtils.nullMoveBoard(board));
+    }
+
+    private static void walk(final Board board,
+                             final int depth) {
+        if (depth == 0) {
+            return;
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                assertIncrementalScores(transition.getToBoard());
+                walk(transition.getToBoard(), depth - 1);
+            }
+        }
+    }
+
+    private static void assertIncrementalScores(final Board board) {
+        for (final Alliance alliance : Alliance.values()) {
+            int material = 0;
+            int pieceSquare = 0;
+            for (final Piece piece : board.getAllPieces()) {
+                if (piece.getPieceAlliance() == alliance) {
+                    material += PieceSquareTables.material(alliance, piece.getPieceType());
+                    pieceSquare += PieceSquareTables.pieceSquare(alliance, piece.getPieceType(), piece.getPiecePosition());
+                }
+            }
+            assertEquals(board.getMaterial(alliance), material);
+            assertEquals(board.getPieceSquareScore(alliance), pieceSquare);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.book.BookMove;
+import com.chess.engine.book.PolyglotBook;
+import com.chess.engine.book.PolyglotKeys;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.BookStrategy;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestPolyglotBook {
+
+    @Test
+    public void testWeightedLookup() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final PolyglotBook book = openBook(new long[]{board.getZobristKey(), board.getZobristKey(), board.getZobristKey() + 1},
+                new int[]{polyglotMove("e2", "e4", 0), polyglotMove("d2", "d4", 0), polyglotMove("g1", "f3", 0)},
+                new int[]{3, 1, 5});
+        final List<BookMove> moves = book.getMoves(board);
+        assertEquals(moves.size(), 2);
+        assertEquals(moves.get(0).getMove(), createMove(board, "e2", "e4"));
+        assertEquals(moves.get(0).getWeight(), 3);
+        int kingPawnCount = 0;
+        final Random random = new Random(42);
+        for (int i = 0; i < 4000; i++) {
+            if (book.pickMove(board, random).equals(createMove(board, "e2", "e4"))) {
+                kingPawnCount++;
+            }
+        }
+        assertTrue(kingPawnCount > 2800 && kingPawnCount < 3200);
+    }
+
+    @Test
+    public void testCastlingIsKingTakesRook() throws IOException {
+        final Board board = FenUtilities.createGameFromFEN("r3k2r/pppppppp/8/8/8/8/PPPPPPPP/R3K2R w KQkq - 0 1");
+        final PolyglotBook book = openBook(new long[]{board.getZobristKey()},
+                new int[]{polyglotMove("e1", "h1", 0)}, new int[]{1});
+        final Move move = book.pickMove(board, new Random());
+        assertTrue(move.isCastlingMove());
+        assertEquals(move.getDestinationCoordinate(), BoardUtils.INSTANCE.getCoordinateAtPosition("g1"));
+    }
+
+    @Test
+    public void testUnderPromotion() throws IOException {
+        final Board board = FenUtilities.createGameFromFEN("8/P6k/8/8/8/8/8/K7 w - - 0 1");
+        final PolyglotBook book = openBook(new long[]{board.getZobristKey()},
+                new int[]{polyglotMove("a7", "a8", 1)}, new int[]{1});
+        final Move move = book.pickMove(board, new Random());
+        assertTrue(move instanceof Move.PawnPromotion);
+        assertEquals(((Move.PawnPromotion) move).getPromotionPiece().getPieceType(), Piece.PieceType.KNIGHT);
+    }
+
+    @Test
+    public void testIllegalBookMoveIsIgnored() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final PolyglotBook book = openBook(new long[]{board.getZobristKey()},
+                new int[]{polyglotMove("e2", "e5", 0)}, new int[]{1});
+        assertTrue(book.getMoves(board).isEmpty());
+        assertEquals(book.pickMove(board, new Random()), MoveFactory.getNullMove());
+    }
+
+    @Test
+    public void testStrategyLeavesBook() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final PolyglotBook book = openBook(new long[]{board.getZobristKey()},
+                new int[]{polyglotMove("d2", "d4", 0)}, new int[]{1});
+        final BookStrategy strategy = new BookStrategy(book, new StockAlphaBeta(1));
+        assertEquals(strategy.execute(board), createMove(board, "d2", "d4"));
+        assertTrue(strategy.isLastMoveFromBook());
+        final Board afterBookMove = play(board, "d2", "d4");
+        assertTrue(isLegal(afterBookMove, strategy.execute(afterBookMove)));
+        assertFalse(strategy.isLastMoveFromBook());
+    }
+
+    @Test
+    public void testPolyglotReferenceKeys() {
+        //de voorbeeldsleutels uit de Polyglot-specificatie
+        Board board = Board.createStandardBoard();
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x463B96181691FC9CL);
+        board = play(board, "e2", "e4");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x823C9B50FD114196L);
+        board = play(board, "d7", "d5");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x0756B94461C50FB0L);
+        board = play(board, "e4", "e5");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x662FAFB965DB29D4L);
+        board = play(board, "f7", "f5");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x22A48B5A8E47FF78L);
+        board = play(board, "e1", "e2");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x652A607CA3F242C1L);
+        board = play(board, "e8", "f7");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x00FDD303C946BDD9L);
+        board = play(play(play(play(play(Board.createStandardBoard(), "a2", "a4"), "b7", "b5"), "h2", "h4"), "b5", "b4"), "c2", "c4");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x3C8123EA7B067637L);
+        board = play(play(board, "b4", "c3"), "a1", "a3");
+        assertEquals(PolyglotKeys.INSTANCE.key(board), 0x5C3F9B829B279560L);
+    }
+
+    @Test
+    public void testEnPassantOnlyWhenCapturePossible() {
+        //en passant telt alleen als er geslagen kan worden, de zetvolgorde maakt dan niet uit
+        final Board knightsFirst = play(play(play(Board.createStandardBoard(), "g1", "f3"), "b8", "c6"), "e2", "e4");
+        final Board pawnFirst = play(play(play(Board.createStandardBoard(), "e2", "e4"), "b8", "c6"), "g1", "f3");
+        assertEquals(PolyglotKeys.INSTANCE.key(knightsFirst), PolyglotKeys.INSTANCE.key(pawnFirst));
+        final Board enPassant = play(play(play(play(Board.createStandardBoard(), "e2", "e4"), "g8", "f6"), "e4", "e5"), "d7", "d5");
+        final Board noEnPassant = play(play(play(play(Board.createStandardBoard(), "e2", "e4"), "d7", "d5"), "e4", "e5"), "g8", "f6");
+        assertNotEquals(PolyglotKeys.INSTANCE.key(enPassant), PolyglotKeys.INSTANCE.key(noEnPassant));
+    }
+
+    @Test
+    public void testBookWithPolyglotKeys() throws IOException {
+        final Board board = Board.createStandardBoard();
+        final PolyglotBook book = PolyglotBook.open(writeBook(new long[]{0x463B96181691FC9CL, 0x823C9B50FD114196L},
+                new int[]{polyglotMove("e2", "e4", 0), polyglotMove("e7", "e5", 0)}, new int[]{1, 1}));
+        assertEquals(book.pickMove(board, new Random()), createMove(board, "e2", "e4"));
+        final Board afterBookMove = play(board, "e2", "e4");
+        assertEquals(book.pickMove(afterBookMove, new Random()), createMove(afterBookMove, "e7", "e5"));
+    }
+
+    //de boeken in deze test gebruiken de Zobrist-sleutel van de engine, zodat de Polyglot-getallen niet nodig zijn
+    private static PolyglotBook openBook(final long[] keys,
+                                         final int[] moves,
+                                         final int[] weights) throws IOException {
+        return PolyglotBook.open(writeBook(keys, moves, weights), Board::getZobristKey);
+    }
+
+    private static Path writeBook(final long[] keys,
+                                  final int[] moves,
+                                  final int[] weights) throws IOException {
+        final Path file = Files.createTempFile("book", ".bin");
+        file.toFile().deleteOnExit();
+        final Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> Long.compareUnsigned(keys[first], keys[second]));
+        try (final DataOutputStream output = new DataOutputStream(Files.newOutputStream(file))) {
+            for (final int i : order) {
+                output.writeLong(keys[i]);
+                output.writeShort(moves[i]);
+                output.writeShort(weights[i]);
+                output.writeInt(0);
+            }
+        }
+        return file;
+    }
+
+    //Polyglot: naar-veld in bit 0-5, van-veld in bit 6-11, promotie in bit 12-14, a1 is 0
+    private static int polyglotMove(final String from,
+                                    final String to,
+                                    final int promotion) {
+        return (promotion << 12) | (polyglotSquare(from) << 6) | polyglotSquare(to);
+    }
+
+    private static int polyglotSquare(final String square) {
+        return (square.charAt(1) - '1') * 8 + (square.charAt(0) - 'a');
+    }
+
+    private static Board play(final Board board,
+                              final String from,
+                              final String to) {
+        final MoveTransition transition = board.currentPlayer().makeMove(createMove(board, from, to));
+        assertTrue(transition.getMoveStatus().isDone());
+        return transition.getToBoard();
+    }
+
+    private static boolean isLegal(final Board board,
+                                   final Move move) {
+        return move != MoveFactory.getNullMove() && board.currentPlayer().makeMove(move).getMoveStatus().isDone();
+    }
+
+    private static Move createMove(final Board board,
+                                   final String from,
+                                   final String to) {
+        return MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition(from),
+                BoardUtils.INSTANCE.getCoordinateAtPosition(to));
+    }
+}
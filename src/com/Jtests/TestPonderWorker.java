@@ -0,0 +1,95 @@
+package com.Jtests;
+
+import com.chess.engine.board.Move;
+import com.chess.gui.PonderWorker;
+import org.junit.Test;
+
+import javax.swing.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestPonderWorker {
+
+    @Test
+    public void testPonderHitBeforeDoneMovesOnce() throws Exception {
+        final CountingWorker worker = new CountingWorker(true);
+        SwingUtilities.invokeAndWait(() -> {
+            //de event dispatch thread wacht op het resultaat, dus done() kan nog niet gedraaid hebben
+            worker.execute();
+            try {
+                worker.get();
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertTrue(worker.isDone());
+            worker.ponderHit();
+            assertEquals(worker.moves, 0);
+        });
+        assertTrue(worker.played.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> assertEquals(worker.moves, 1));
+    }
+
+    @Test
+    public void testPonderHitAfterDoneMovesOnce() throws Exception {
+        final CountingWorker worker = new CountingWorker(true);
+        worker.execute();
+        worker.get();
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> {
+            //zonder ponder hit speelt done() niets
+            assertEquals(worker.moves, 0);
+            worker.ponderHit();
+            worker.ponderHit();
+            assertEquals(worker.moves, 1);
+            assertTrue(worker.hasMoved());
+        });
+    }
+
+    @Test
+    public void testAbandonedSearchDoesNotMove() throws Exception {
+        final CountingWorker worker = new CountingWorker(false);
+        SwingUtilities.invokeAndWait(() -> {
+            worker.execute();
+            worker.abandon();
+        });
+        worker.get();
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> {
+            assertTrue(worker.stopped);
+            assertFalse(worker.hasMoved());
+        });
+    }
+
+    private static final class CountingWorker extends PonderWorker {
+
+        private final CountDownLatch played;
+        private int moves;
+        private boolean stopped;
+
+        private CountingWorker(final boolean pondering) {
+            super(pondering);
+            this.played = new CountDownLatch(1);
+        }
+
+        @Override
+        protected Move doInBackground() {
+            return Move.MoveFactory.getNullMove();
+        }
+
+        @Override
+        protected void stopSearch() {
+            this.stopped = true;
+        }
+
+        @Override
+        protected void moveFound(final Move bestMove) {
+            this.moves++;
+            this.played.countDown();
+        }
+    }
+}
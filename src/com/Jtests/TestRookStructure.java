@@ -10,6 +10,7 @@ import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
 import com.chess.engine.board.Board.Builder;
 import com.chess.engine.pieces.King;
+import com.chess.fen.FenUtilities;
 
 public class TestRookStructure {
 
@@ -36,5 +37,28 @@ public class TestRookStructure {
         assertEquals(RookStructureAnalyzer.get().rookStructureScore(board, board.whitePlayer()), 25);
     }
 
+    @Test
+    public void testSemiOpenFile() {
+        //de toren op a1 staat op een halfopen lijn, ook al staat er verder niemand op de eerste rij
+        final Board board = FenUtilities.createGameFromFEN("4k3/p7/8/8/8/8/8/R3K3 w - -");
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(board, board.whitePlayer()), 10);
+        final Board closed = FenUtilities.createGameFromFEN("4k3/p7/8/8/8/8/P7/R3K3 w - -");
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(closed, closed.whitePlayer()), 0);
+    }
 
+    @Test
+    public void testDoubledRooks() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/R7/R3K3 w - -");
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(board, board.whitePlayer()), 2 * 25 + 2 * 10);
+    }
+
+    @Test
+    public void testRookOnSeventh() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/R7/8/8/8/8/8/4K3 w - -");
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(board, board.whitePlayer()), 25 + 20);
+        //zonder pionnen op de zevende rij en met de koning ervoor telt de zevende rij niet
+        final Board kingInFront = FenUtilities.createGameFromFEN("8/R7/4k3/8/8/8/8/4K3 w - -");
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(kingInFront, kingInFront.whitePlayer()), 25);
+        assertEquals(RookStructureAnalyzer.get().rookStructureScore(kingInFront, kingInFront.blackPlayer()), 0);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.ai.SearchHandle;
+import com.chess.engine.player.ai.SearchInfo;
+import com.chess.engine.player.ai.SearchListener;
+import com.chess.engine.player.ai.SearchLimits;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestSearchHandle {
+
+    @Test
+    public void testStop() throws Exception {
+        final Board board = Board.createStandardBoard();
+        final SearchHandle handle = new StockAlphaBeta(12).executeAsync(board, SearchLimits.NONE);
+        Thread.sleep(200);
+        handle.stop();
+        final SearchResult result = handle.getResult().get(10, TimeUnit.SECONDS);
+        assertTrue(result.isStopped());
+        assertTrue(isLegal(board, result.getBestMove()));
+    }
+
+    @Test
+    public void testNodeLimit() throws Exception {
+        final Board board = Board.createStandardBoard();
+        final SearchLimits limits = new SearchLimits.Builder().setNodeLimit(5000).build();
+        final SearchResult result = new StockAlphaBeta(12).executeAsync(board, limits)
+                .getResult().get(10, TimeUnit.SECONDS);
+        assertTrue(result.isStopped());
+        assertEquals(result.getNumBoardsEvaluated(), 5000);
+        assertTrue(isLegal(board, result.getBestMove()));
+    }
+
+    @Test
+    public void testTimeLimit() throws Exception {
+        final Board board = Board.createStandardBoard();
+        final SearchLimits limits = new SearchLimits.Builder().setTimeLimit(300).build();
+        final SearchResult result = new StockAlphaBeta(12).executeAsync(board, limits)
+                .getResult().get(10, TimeUnit.SECONDS);
+        assertTrue(result.isStopped());
+        assertTrue(isLegal(board, result.getBestMove()));
+    }
+
+    @Test
+    public void testReusedStrategyStartsFresh() throws Exception {
+        //de tellers en de stopvlag horen bij een zoekopdracht, niet bij de strategie
+        final Board board = Board.createStandardBoard();
+        final StockAlphaBeta strategy = new StockAlphaBeta(12);
+        final SearchLimits limits = new SearchLimits.Builder().setNodeLimit(5000).build();
+        assertEquals(strategy.executeAsync(board, limits).getResult().get(10, TimeUnit.SECONDS).getNumBoardsEvaluated(), 5000);
+        assertEquals(strategy.executeAsync(board, limits).getResult().get(10, TimeUnit.SECONDS).getNumBoardsEvaluated(), 5000);
+        final StockAlphaBeta shallow = new StockAlphaBeta(3);
+        shallow.stop();
+        assertTrue(shallow.search(board).isStopped());
+        final SearchResult afterStop = shallow.search(board);
+        assertFalse(afterStop.isStopped());
+        assertEquals(afterStop.getNumBoardsEvaluated(), shallow.getNumBoardsEvaluated());
+        assertEquals(afterStop.getBestMove(), new StockAlphaBeta(3).execute(board));
+    }
+
+    @Test
+    public void testCompletedSearchMatchesExecute() throws Exception {
+        final Board board = Board.createStandardBoard();
+        final AtomicInteger progressUpdates = new AtomicInteger();
+        final SearchResult result = new StockAlphaBeta(3).executeAsync(board, SearchLimits.NONE,
+                progress -> progressUpdates.incrementAndGet()).getResult().get(30, TimeUnit.SECONDS);
+        assertFalse(result.isStopped());
+        assertTrue(progressUpdates.get() > 0);
+        assertEquals(result.getBestMove(), new StockAlphaBeta(3).execute(board));
+        assertEquals(result.getPrincipalVariation().get(0), result.getBestMove());
+    }
+
+    @Test
+    public void testSearchListener() {
+        final Board board = Board.createStandardBoard();
+        final List<SearchInfo> searchInfos = new ArrayList<>();
+        final List<SearchResult> searchResults = new ArrayList<>();
+        final StockAlphaBeta strategy = new StockAlphaBeta(3);
+        strategy.setInfoInterval(0);
+        strategy.addSearchListener(new SearchListener() {
+            @Override
+            public void searchInfo(final SearchInfo searchInfo) {
+                searchInfos.add(searchInfo);
+            }
+
+            @Override
+            public void searchFinished(final SearchResult searchResult) {
+                searchResults.add(searchResult);
+            }
+        });
+        final Move bestMove = strategy.execute(board);
+        assertEquals(searchResults.size(), 1);
+        assertEquals(searchResults.get(0).getBestMove(), bestMove);
+        assertEquals(searchInfos.size(), board.currentPlayer().getLegalMoves().size());
+        long nodes = 0;
+        for (final SearchInfo searchInfo : searchInfos) {
+            assertEquals(searchInfo.getDepth(), 3);
+            assertTrue(searchInfo.getSelectiveDepth() >= 3);
+            assertTrue(searchInfo.getNodes() >= nodes);
+            assertFalse(searchInfo.getPrincipalVariation().isEmpty());
+            nodes = searchInfo.getNodes();
+        }
+    }
+
+    @Test
+    public void testMultiPV() {
+        final Board board = FenUtilities.createGameFromFEN("3r3r/1Q5p/p3q2k/3NBp1B/3p3n/5P2/PP4PP/4R2K w - - 1 0");
+        final List<SearchResult> results = new StockAlphaBeta(3).executeMultiPV(board, 4);
+        assertEquals(results.size(), 4);
+        assertEquals(results.get(0).getBestMove(), new StockAlphaBeta(3).execute(board));
+        for (int i = 0; i < results.size(); i++) {
+            assertTrue(isLegal(board, results.get(i).getBestMove()));
+            assertEquals(results.get(i).getPrincipalVariation().get(0), results.get(i).getBestMove());
+            for (int j = 0; j < i; j++) {
+                assertFalse(results.get(i).getBestMove().equals(results.get(j).getBestMove()));
+                assertTrue(results.get(j).getScore() >= results.get(i).getScore());
+            }
+        }
+    }
+
+    @Test
+    public void testMultiPVMoreLinesThanMoves() {
+        final Board board = FenUtilities.createGameFromFEN("7k/8/6K1/8/8/8/8/8 b - - 0 1");
+        final List<SearchResult> results = new StockAlphaBeta(2).executeMultiPV(board, 5);
+        assertEquals(results.size(), 1);
+    }
+
+    private static boolean isLegal(final Board board,
+                                   final Move move) {
+        return board.currentPlayer().makeMove(move).getMoveStatus().isDone();
+    }
+}
@@ -0,0 +1,67 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.player.MoveUtils;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.fen.FenUtilities;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestStaticExchange {
+
+    @Test
+    public void testUndefendedPawn() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1");
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "e4", "d5")), 100);
+        assertEquals(MoveUtils.staticExchangeEvaluation(board, BoardUtils.INSTANCE.getCoordinateAtPosition("d5")), 100);
+    }
+
+    @Test
+    public void testKnightTakesDefendedPawn() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/2p5/3p4/8/4N3/8/4K3 w - - 0 1");
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "e3", "d5")), -200);
+        assertEquals(MoveUtils.staticExchangeEvaluation(board, BoardUtils.INSTANCE.getCoordinateAtPosition("d5")), 0);
+    }
+
+    @Test
+    public void testXRayRecapture() {
+        final Board board = FenUtilities.createGameFromFEN("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1");
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "d2", "d5")), 100);
+    }
+
+    @Test
+    public void testQueenTakesDefendedPawn() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/4p3/3p4/8/8/8/8/3QK3 w - - 0 1");
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "d1", "d6")), -800);
+    }
+
+    @Test
+    public void testQuietMoveToAttackedSquare() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/2p5/8/8/8/8/3RK3 w - - 0 1");
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "d1", "d5")), -500);
+        assertEquals(MoveUtils.staticExchangeEvaluation(createMove(board, "d1", "d4")), 0);
+    }
+
+    @Test
+    public void testLosingCaptureEvasionIsSearched() {
+        //na Te8+ is Dxe8 de enige zet, een verliezende slag die niet weggesnoeid mag worden
+        final Board board = FenUtilities.createGameFromFEN("7k/3q2pp/3N4/8/8/8/8/4R1K1 w - - 0 1");
+        final SearchResult result = new StockAlphaBeta(2).search(board);
+        assertTrue(result.getScore() < 10000);
+        assertNotEquals(result.getBestMove(), createMove(board, "e1", "e8"));
+    }
+
+    private static Move createMove(final Board board,
+                                   final String from,
+                                   final String to) {
+        return MoveFactory.createMove(board, BoardUtils.INSTANCE.getCoordinateAtPosition(from),
+                BoardUtils.INSTANCE.getCoordinateAtPosition(to));
+    }
+}
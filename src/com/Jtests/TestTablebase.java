@@ -0,0 +1,116 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.engine.tablebase.TablebaseGenerator;
+import com.chess.engine.tablebase.Tablebases;
+import com.chess.fen.FenUtilities;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestTablebase {
+
+    private static Path directory;
+
+    @BeforeClass
+    public static void generateTables() throws IOException {
+        directory = Files.createTempDirectory("tablebases");
+        final TablebaseGenerator generator = new TablebaseGenerator(directory);
+        generator.generate("KQK");
+        generator.generate("KRK");
+        Tablebases.INSTANCE.load(directory);
+    }
+
+    @AfterClass
+    public static void unloadTables() {
+        Tablebases.INSTANCE.clear();
+    }
+
+    @Test
+    public void testMateInOne() {
+        final Board board = FenUtilities.createGameFromFEN("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1");
+        assertEquals(Tablebases.INSTANCE.probeWdl(board), Tablebases.WIN);
+        assertEquals(Tablebases.INSTANCE.probeDtm(board), 1);
+        assertTrue(play(board, Tablebases.INSTANCE.bestMove(board)).currentPlayer().isInCheckMate());
+    }
+
+    @Test
+    public void testColoursReversed() {
+        final Board board = FenUtilities.createGameFromFEN("1q6/8/8/8/8/6k1/8/7K b - - 0 1");
+        assertEquals(Tablebases.INSTANCE.probeDtm(board), 1);
+        assertTrue(play(board, Tablebases.INSTANCE.bestMove(board)).currentPlayer().isInCheckMate());
+        final Board defending = FenUtilities.createGameFromFEN("1q6/8/8/8/8/6k1/8/7K w - - 0 1");
+        assertEquals(Tablebases.INSTANCE.probeWdl(defending), Tablebases.LOSS);
+    }
+
+    @Test
+    public void testRookMateMakesProgress() {
+        //de beste zet brengt het mat precies een ply dichterbij; KRK is altijd binnen 16 zetten mat
+        final Board board = FenUtilities.createGameFromFEN("8/8/3k4/8/8/8/8/R3K3 w - - 0 1");
+        final int dtm = Tablebases.INSTANCE.probeDtm(board);
+        assertTrue(dtm > 0 && dtm <= 31);
+        final Board afterBestMove = play(board, Tablebases.INSTANCE.bestMove(board));
+        assertEquals(Tablebases.INSTANCE.probeDtm(afterBestMove), -(dtm - 1));
+    }
+
+    @Test
+    public void testRookCaptureIsDraw() {
+        final Board board = FenUtilities.createGameFromFEN("8/8/8/8/8/8/1k6/R6K b - - 0 1");
+        assertEquals(Tablebases.INSTANCE.probeWdl(board), Tablebases.DRAW);
+        assertEquals(Tablebases.INSTANCE.probeDtm(board), 0);
+    }
+
+    @Test
+    public void testNotInTables() {
+        final Board board = FenUtilities.createGameFromFEN("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        assertEquals(Tablebases.INSTANCE.probeWdl(board), Tablebases.UNKNOWN);
+        assertNull(Tablebases.INSTANCE.bestMove(board));
+    }
+
+    @Test
+    public void testNothingLoaded() throws IOException {
+        //zonder geladen tabellen is ook de kale koningen-stelling onbekend, en de zoekopdracht rekent zelf
+        final Board board = FenUtilities.createGameFromFEN("8/8/8/3k4/8/8/8/4K3 w - - 0 1");
+        Tablebases.INSTANCE.clear();
+        try {
+            assertFalse(Tablebases.INSTANCE.isAvailable());
+            assertEquals(Tablebases.INSTANCE.probeWdl(board), Tablebases.UNKNOWN);
+            assertEquals(Tablebases.INSTANCE.probeDtm(board), Tablebases.UNKNOWN);
+            assertNull(Tablebases.INSTANCE.bestMove(board));
+            assertTrue(new StockAlphaBeta(2).search(board).getNumBoardsEvaluated() > 0);
+        } finally {
+            Tablebases.INSTANCE.load(directory);
+        }
+        assertEquals(Tablebases.INSTANCE.probeWdl(board), Tablebases.DRAW);
+        assertNull(Tablebases.INSTANCE.getLoadFailure());
+    }
+
+    @Test
+    public void testSearchPlaysTablebaseMove() {
+        final Board board = FenUtilities.createGameFromFEN("8/8/3k4/8/8/8/8/R3K3 w - - 0 1");
+        final SearchResult result = new StockAlphaBeta(4).search(board);
+        final Board afterSearchMove = play(board, result.getBestMove());
+        assertEquals(Tablebases.INSTANCE.probeDtm(afterSearchMove), -(Tablebases.INSTANCE.probeDtm(board) - 1));
+        assertTrue(result.getScore() > 0);
+    }
+
+    private static Board play(final Board board,
+                              final Move move) {
+        final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+        assertTrue(moveTransition.getMoveStatus().isDone());
+        return moveTransition.getToBoard();
+    }
+}
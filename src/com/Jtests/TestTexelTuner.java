@@ -0,0 +1,91 @@
+package com.Jtests;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.player.ai.EvaluationParameters;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+import com.chess.engine.player.ai.TexelTuner;
+import com.chess.fen.FenUtilities;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestTexelTuner {
+
+    private TexelTuner tuner;
+
+    @Before
+    public void createTuner() throws IOException {
+        this.tuner = new TexelTuner(2);
+        final Path file = Files.createTempFile("jchess", ".epd");
+        file.toFile().deleteOnExit();
+        Files.write(file, Arrays.asList(
+                "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 1-0",
+                "rnbqkb1r/pppp1ppp/5n2/4p3/4P3/2N5/PPPP1PPP/R1BQKBNR b KQkq - c9 \"0-1\";",
+                "r3k2r/ppp2ppp/2n5/3p4/3P4/2N5/PP3PPP/R3K2R w KQkq - [0.5]",
+                "4k3/pp3ppp/8/8/8/8/P4PPP/4K3 w - - [0.0]",
+                "4k3/pp3ppp/8/8/8/8/PP3P1P/4K3 w - - [1.0]",
+                "rnbqkbnr/ppp2ppp/8/3pp3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - geen uitslag"), StandardCharsets.UTF_8);
+        this.tuner.loadEpd(file);
+    }
+
+    @After
+    public void shutdownTuner() {
+        this.tuner.shutdown();
+    }
+
+    @Test
+    public void testLoadEpd() {
+        assertEquals(this.tuner.size(), 5);
+    }
+
+    @Test
+    public void testPositionsInCheckAreSkipped() {
+        final Board check = FenUtilities.createGameFromFEN("rnb1kbnr/pppp1ppp/8/4p3/5PPq/8/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertFalse(this.tuner.addPosition(check, 0.0));
+        assertEquals(this.tuner.size(), 5);
+    }
+
+    @Test
+    public void testLossMatchesEvaluator() {
+        //een enkele stelling: de fout volgt direct uit de score van de evaluatie
+        final TexelTuner single = new TexelTuner(1);
+        try {
+            final Board board = FenUtilities.createGameFromFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+            assertTrue(single.addPosition(board, 1.0));
+            final int score = StandardBoardEvaluator.get().evaluate(board, 0);
+            final double expected = 1.0 - 1.0 / (1.0 + Math.pow(10.0, -score / 400.0));
+            assertEquals(single.loss(EvaluationParameters.DEFAULT), expected * expected, 1e-12);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void testTuningLowersLoss() {
+        this.tuner.tuneScalingConstant();
+        final double before = this.tuner.loss(EvaluationParameters.DEFAULT);
+        final EvaluationParameters tuned = this.tuner.tune(EvaluationParameters.DEFAULT, 3);
+        assertTrue(this.tuner.loss(tuned) <= before);
+    }
+
+    @Test
+    public void testParameterFile() throws IOException {
+        final Path file = Files.createTempFile("jchess", ".txt");
+        file.toFile().deleteOnExit();
+        final EvaluationParameters parameters = EvaluationParameters.DEFAULT.with(Term.OPEN_FILE_ROOK, 31);
+        parameters.write(file);
+        assertEquals(EvaluationParameters.load(file), parameters);
+        assertEquals(StandardBoardEvaluator.withParameters(EvaluationParameters.DEFAULT), StandardBoardEvaluator.get());
+    }
+}
@@ -0,0 +1,200 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public enum BitBoardUtils {
+
+    INSTANCE;
+
+    public static final long EMPTY = 0L;
+    //veld 0 is a8, dus een lijn is elk achtste bit vanaf de kolom
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+
+    private static final int NORTH = 0;
+    private static final int SOUTH = 1;
+    private static final int EAST = 2;
+    private static final int WEST = 3;
+    private static final int NORTH_EAST = 4;
+    private static final int NORTH_WEST = 5;
+    private static final int SOUTH_EAST = 6;
+    private static final int SOUTH_WEST = 7;
+    //coordinaat 0 is a8, dus "noord" loopt richting lagere coordinaten
+    private static final int[] DIRECTION_OFFSETS = {-8, 8, 1, -1, -7, -9, 9, 7};
+    private static final int[] ROOK_DIRECTIONS = {NORTH, SOUTH, EAST, WEST};
+    private static final int[] BISHOP_DIRECTIONS = {NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST};
+
+    private static final long[][] RAYS = initRays();
+    private static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][]{
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    private static final long[] KING_ATTACKS = initLeaperAttacks(new int[][]{
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    private static final long[] WHITE_PAWN_ATTACKS = initLeaperAttacks(new int[][]{{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = initLeaperAttacks(new int[][]{{1, -1}, {1, 1}});
+
+    public static long squareMask(final int square) {
+        return 1L << square;
+    }
+
+    public static long fileMask(final int file) {
+        return FILE_A << file;
+    }
+
+    public static int index(final Alliance alliance,
+                            final PieceType pieceType) {
+        return alliance.ordinal() * PieceType.values().length + pieceType.ordinal();
+    }
+
+    public static long knightAttacks(final int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(final int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(final Alliance alliance,
+                                   final int square) {
+        return alliance.isWhite() ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+    }
+
+    //alle velden die door een of meer van de pionnen aangevallen worden; wit slaat richting a8, dus naar lagere bits
+    public static long allPawnAttacks(final Alliance alliance,
+                                      final long pawns) {
+        return alliance.isWhite() ? ((pawns & ~FILE_A) >>> 9) | ((pawns & ~FILE_H) >>> 7) :
+                ((pawns & ~FILE_A) << 7) | ((pawns & ~FILE_H) << 9);
+    }
+
+    //alle velden voor de gegeven velden op dezelfde lijn, richting a8 en richting a1
+    public static long northFill(long squares) {
+        squares |= squares >>> 8;
+        squares |= squares >>> 16;
+        return squares | squares >>> 32;
+    }
+
+    public static long southFill(long squares) {
+        squares |= squares << 8;
+        squares |= squares << 16;
+        return squares | squares << 32;
+    }
+
+    //de volledige lijnen waarop een van de velden staat
+    public static long fileFill(final long squares) {
+        return northFill(squares) | southFill(squares);
+    }
+
+    public static long rookAttacks(final int square,
+                                   final long occupancy) {
+        long attacks = EMPTY;
+        for (final int direction : ROOK_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupancy);
+        }
+        return attacks;
+    }
+
+    public static long bishopAttacks(final int square,
+                                     final long occupancy) {
+        long attacks = EMPTY;
+        for (final int direction : BISHOP_DIRECTIONS) {
+            attacks |= rayAttacks(direction, square, occupancy);
+        }
+        return attacks;
+    }
+
+    public static long queenAttacks(final int square,
+                                    final long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    public static long attacks(final PieceType pieceType,
+                               final Alliance alliance,
+                               final int square,
+                               final long occupancy) {
+        switch (pieceType) {
+            case PAWN:
+                return pawnAttacks(alliance, square);
+            case KNIGHT:
+                return knightAttacks(square);
+            case BISHOP:
+                return bishopAttacks(square, occupancy);
+            case ROOK:
+                return rookAttacks(square, occupancy);
+            case QUEEN:
+                return queenAttacks(square, occupancy);
+            case KING:
+                return kingAttacks(square);
+            default:
+                throw new RuntimeException("Unknown piece type " + pieceType);
+        }
+    }
+
+    public static long attackersTo(final Board board,
+                                   final int square,
+                                   final long occupancy) {
+        final long rooksAndQueens = board.getPieceBitBoard(PieceType.ROOK) | board.getPieceBitBoard(PieceType.QUEEN);
+        final long bishopsAndQueens = board.getPieceBitBoard(PieceType.BISHOP) | board.getPieceBitBoard(PieceType.QUEEN);
+        return (pawnAttacks(Alliance.BLACK, square) & board.getPieceBitBoard(Alliance.WHITE, PieceType.PAWN)) |
+                (pawnAttacks(Alliance.WHITE, square) & board.getPieceBitBoard(Alliance.BLACK, PieceType.PAWN)) |
+                (knightAttacks(square) & board.getPieceBitBoard(PieceType.KNIGHT)) |
+                (kingAttacks(square) & board.getPieceBitBoard(PieceType.KING)) |
+                (rookAttacks(square, occupancy) & rooksAndQueens) |
+                (bishopAttacks(square, occupancy) & bishopsAndQueens);
+    }
+
+    public static boolean isSquareAttacked(final Board board,
+                                           final int square,
+                                           final Alliance attacker) {
+        return (attackersTo(board, square, board.getOccupancy()) & board.getOccupancy(attacker)) != EMPTY;
+    }
+
+    private static long rayAttacks(final int direction,
+                                   final int square,
+                                   final long occupancy) {
+        final long ray = RAYS[direction][square];
+        final long blockers = ray & occupancy;
+        if (blockers == EMPTY) {
+            return ray;
+        }
+        final int blocker = DIRECTION_OFFSETS[direction] > 0 ?
+                Long.numberOfTrailingZeros(blockers) :
+                63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[direction][blocker];
+    }
+
+    private static long[][] initRays() {
+        final int[][] steps = {{-1, 0}, {1, 0}, {0, 1}, {0, -1}, {-1, 1}, {-1, -1}, {1, 1}, {1, -1}};
+        final long[][] rays = new long[steps.length][BoardUtils.NUM_TILES];
+        for (int direction = 0; direction < steps.length; direction++) {
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                int row = square / BoardUtils.NUM_TILES_PER_ROW + steps[direction][0];
+                int column = square % BoardUtils.NUM_TILES_PER_ROW + steps[direction][1];
+                while (isOnBoard(row, column)) {
+                    rays[direction][square] |= squareMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                    row += steps[direction][0];
+                    column += steps[direction][1];
+                }
+            }
+        }
+        return rays;
+    }
+
+    private static long[] initLeaperAttacks(final int[][] steps) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            for (final int[] step : steps) {
+                final int row = square / BoardUtils.NUM_TILES_PER_ROW + step[0];
+                final int column = square % BoardUtils.NUM_TILES_PER_ROW + step[1];
+                if (isOnBoard(row, column)) {
+                    attacks[square] |= squareMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row,
+                                     final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+}
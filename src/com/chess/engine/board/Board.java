@@ -23,13 +23,24 @@ public class Board {
     private final Map<Integer, Piece> boardConfig;
     private final Pawn enPassantPawn;
     private final Move transitionMove;
+    private final long[] pieceBitBoards;
+    private final long zobristKey;
+    private final long pawnKey;
+    private final int[] material;
+    private final int[] pieceSquareScores;
 
     private Board(final Builder builder) {
         this.gameBoard = createGameBoard(builder);
+        this.pieceBitBoards = calculatePieceBitBoards(builder.boardConfig);
         this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
         this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
         this.enPassantPawn = builder.enPassantPawn;
         this.boardConfig = builder.boardConfig;
+        this.zobristKey = ZobristUtils.calculateKey(builder.boardConfig, builder.nextMoveMaker, builder.enPassantPawn);
+        this.pawnKey = ZobristUtils.calculatePawnKey(builder.boardConfig);
+        this.material = new int[Alliance.values().length];
+        this.pieceSquareScores = new int[Alliance.values().length];
+        PieceSquareTables.calculateScores(builder, this.material, this.pieceSquareScores);
         final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
         final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
         this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
@@ -87,6 +98,43 @@ public class Board {
         return this.boardConfig.get(coordinate);
     }
 
+    public long getPieceBitBoard(final Alliance alliance,
+                                 final Piece.PieceType pieceType) {
+        return this.pieceBitBoards[BitBoardUtils.index(alliance, pieceType)];
+    }
+
+    public long getPieceBitBoard(final Piece.PieceType pieceType) {
+        return getPieceBitBoard(Alliance.WHITE, pieceType) | getPieceBitBoard(Alliance.BLACK, pieceType);
+    }
+
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    public int getMaterial(final Alliance alliance) {
+        return this.material[alliance.ordinal()];
+    }
+
+    public int getPieceSquareScore(final Alliance alliance) {
+        return this.pieceSquareScores[alliance.ordinal()];
+    }
+
+    public long getOccupancy(final Alliance alliance) {
+        long occupancy = BitBoardUtils.EMPTY;
+        for (final Piece.PieceType pieceType : Piece.PieceType.values()) {
+            occupancy |= getPieceBitBoard(alliance, pieceType);
+        }
+        return occupancy;
+    }
+
+    public long getOccupancy() {
+        return getOccupancy(Alliance.WHITE) | getOccupancy(Alliance.BLACK);
+    }
+
     private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
 
         final List<Move> legalMoves = new ArrayList<>();
@@ -111,6 +159,15 @@ public class Board {
         return Collections.unmodifiableList(activePieces);
     }
 
+    private static long[] calculatePieceBitBoards(final Map<Integer, Piece> boardConfig) {
+        final long[] pieceBitBoards = new long[Alliance.values().length * Piece.PieceType.values().length];
+        for (final Piece piece : boardConfig.values()) {
+            pieceBitBoards[BitBoardUtils.index(piece.getPieceAlliance(), piece.getPieceType())] |=
+                    BitBoardUtils.squareMask(piece.getPiecePosition());
+        }
+        return pieceBitBoards;
+    }
+
     public Tile getTile(final int tileCoordinate) {
         return gameBoard.get(tileCoordinate);
     }
@@ -178,6 +235,7 @@ public class Board {
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
         Move transitionMove;
+        Board scoreSource;
 
         public Builder() {
             this.boardConfig = new HashMap<>();
@@ -198,6 +256,12 @@ public class Board {
             return this;
         }
 
+        //voor een bord met dezelfde stukken, zoals bij een null move
+        Builder setScoreSource(final Board scoreSource) {
+            this.scoreSource = scoreSource;
+            return this;
+        }
+
         public Board build() {
             return new Board(this);
         }
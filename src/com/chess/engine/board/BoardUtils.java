@@ -1,6 +1,8 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
 import com.chess.engine.player.MoveTransition;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -102,11 +104,57 @@ public enum BoardUtils {
         return transition.getToBoard().currentPlayer().isInCheck();
     }
 
+    public static boolean givesCheck(final Move move) {
+        final Board board = move.getBoard();
+        final Alliance alliance = move.getMovedPiece().getPieceAlliance();
+        final long enemyKing = board.getPieceBitBoard(alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE, PieceType.KING);
+        final int from = move.getCurrentCoordinate();
+        final int to = move.getDestinationCoordinate();
+        long vacated = BitBoardUtils.squareMask(from);
+        long occupancy = (board.getOccupancy() & ~vacated) | BitBoardUtils.squareMask(to);
+        PieceType landingType = move.getMovedPiece().getPieceType();
+        int landingSquare = to;
+        if (move instanceof Move.PawnEnPassantAttackMove) {
+            occupancy &= ~BitBoardUtils.squareMask(move.getAttackedPiece().getPiecePosition());
+        } else if (move instanceof Move.PawnPromotion) {
+            landingType = ((Move.PawnPromotion) move).promotionPiece.getPieceType();
+        } else if (move.isCastlingMove()) {
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            vacated |= BitBoardUtils.squareMask(castleMove.castleRookStart);
+            occupancy = (occupancy & ~BitBoardUtils.squareMask(castleMove.castleRookStart)) |
+                    BitBoardUtils.squareMask(castleMove.castleRookDestination);
+            landingType = PieceType.ROOK;
+            landingSquare = castleMove.castleRookDestination;
+        }
+        //directe schaak door het verplaatste stuk
+        if ((BitBoardUtils.attacks(landingType, alliance, landingSquare, occupancy) & enemyKing) != BitBoardUtils.EMPTY) {
+            return true;
+        }
+        //aftrekschaak door een lopende lijn die nu vrij is
+        final int kingSquare = Long.numberOfTrailingZeros(enemyKing);
+        final long rooksAndQueens = (board.getPieceBitBoard(alliance, PieceType.ROOK) |
+                board.getPieceBitBoard(alliance, PieceType.QUEEN)) & ~vacated;
+        final long bishopsAndQueens = (board.getPieceBitBoard(alliance, PieceType.BISHOP) |
+                board.getPieceBitBoard(alliance, PieceType.QUEEN)) & ~vacated;
+        return (BitBoardUtils.rookAttacks(kingSquare, occupancy) & rooksAndQueens) != BitBoardUtils.EMPTY ||
+                (BitBoardUtils.bishopAttacks(kingSquare, occupancy) & bishopsAndQueens) != BitBoardUtils.EMPTY;
+    }
+
     public static boolean isEndGame(final Board board) {
         return board.currentPlayer().isInCheckMate() ||
                 board.currentPlayer().isInStaleMate();
     }
 
+    public static Board nullMoveBoard(final Board board) {
+        final Board.Builder builder = new Board.Builder();
+        for (final Piece piece : board.getAllPieces()) {
+            builder.setPiece(piece);
+        }
+        builder.setMoveMaker(board.currentPlayer().getOpponent().getAlliance());
+        builder.setScoreSource(board);
+        return builder.build();
+    }
+
     public static boolean isThreatenedBoardImmediate(final Board board) {
         return board.whitePlayer().isInCheck() || board.blackPlayer().isInCheck();
     }
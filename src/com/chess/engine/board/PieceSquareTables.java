@@ -0,0 +1,125 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.Map;
+
+/*
+ * Materiaal en piece-square waarden als platte tabellen, geindexeerd met BitBoardUtils.index(alliance, type).
+ * Een bord neemt de sommen over van het vorige bord en past alleen aan wat de zet verandert (van- en naar-veld,
+ * het geslagen stuk, de toren bij rokade en het nieuwe stuk bij promotie), zodat de evaluatie ze in O(1) leest.
+ */
+public final class PieceSquareTables {
+
+    private static final int NUM_INDICES = Alliance.values().length * PieceType.values().length;
+    private static final int[] MATERIAL = new int[NUM_INDICES];
+    private static final int[][] PIECE_SQUARE = new int[NUM_INDICES][BoardUtils.NUM_TILES];
+
+    static {
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                final int index = BitBoardUtils.index(alliance, pieceType);
+                MATERIAL[index] = pieceType.getPieceValue();
+                for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                    PIECE_SQUARE[index][square] = locationBonus(alliance, pieceType, square);
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    public static int material(final Alliance alliance,
+                               final PieceType pieceType) {
+        return MATERIAL[BitBoardUtils.index(alliance, pieceType)];
+    }
+
+    public static int pieceSquare(final Alliance alliance,
+                                  final PieceType pieceType,
+                                  final int square) {
+        return PIECE_SQUARE[BitBoardUtils.index(alliance, pieceType)][square];
+    }
+
+    //vult material en pieceSquare (per alliance ordinal) voor het bord dat de builder gaat bouwen
+    static void calculateScores(final Board.Builder builder,
+                                final int[] material,
+                                final int[] pieceSquare) {
+        final Board source = builder.scoreSource != null ? builder.scoreSource :
+                builder.transitionMove != null ? builder.transitionMove.getBoard() : null;
+        if (source == null) {
+            calculateFull(builder.boardConfig, material, pieceSquare);
+            return;
+        }
+        for (final Alliance alliance : Alliance.values()) {
+            material[alliance.ordinal()] = source.getMaterial(alliance);
+            pieceSquare[alliance.ordinal()] = source.getPieceSquareScore(alliance);
+        }
+        if (builder.scoreSource == null) {
+            applyMove(builder.transitionMove, material, pieceSquare);
+        }
+    }
+
+    private static void calculateFull(final Map<Integer, Piece> boardConfig,
+                                      final int[] material,
+                                      final int[] pieceSquare) {
+        for (final Piece piece : boardConfig.values()) {
+            final int index = BitBoardUtils.index(piece.getPieceAlliance(), piece.getPieceType());
+            material[piece.getPieceAlliance().ordinal()] += MATERIAL[index];
+            pieceSquare[piece.getPieceAlliance().ordinal()] += PIECE_SQUARE[index][piece.getPiecePosition()];
+        }
+    }
+
+    private static void applyMove(final Move move,
+                                  final int[] material,
+                                  final int[] pieceSquare) {
+        final Piece movedPiece = move.getMovedPiece();
+        final int side = movedPiece.getPieceAlliance().ordinal();
+        final int[] movedTable = PIECE_SQUARE[BitBoardUtils.index(movedPiece.getPieceAlliance(), movedPiece.getPieceType())];
+        pieceSquare[side] += movedTable[move.getDestinationCoordinate()] - movedTable[move.getCurrentCoordinate()];
+        //promoties met slaan zijn geen attack move, dus kijk naar het doelveld; bij en passant staat het geslagen
+        //stuk daar niet
+        final Piece attackedPiece = move.isAttack() ? move.getAttackedPiece() : move.getBoard().getPiece(move.getDestinationCoordinate());
+        if (attackedPiece != null) {
+            final int index = BitBoardUtils.index(attackedPiece.getPieceAlliance(), attackedPiece.getPieceType());
+            material[attackedPiece.getPieceAlliance().ordinal()] -= MATERIAL[index];
+            pieceSquare[attackedPiece.getPieceAlliance().ordinal()] -= PIECE_SQUARE[index][attackedPiece.getPiecePosition()];
+        }
+        if (move instanceof Move.CastleMove) {
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            final int[] rookTable = PIECE_SQUARE[BitBoardUtils.index(movedPiece.getPieceAlliance(), PieceType.ROOK)];
+            pieceSquare[side] += rookTable[castleMove.castleRookDestination] - rookTable[castleMove.castleRookStart];
+        } else if (move instanceof Move.PawnPromotion) {
+            final Piece promotionPiece = ((Move.PawnPromotion) move).getPromotionPiece();
+            final int pawnIndex = BitBoardUtils.index(movedPiece.getPieceAlliance(), PieceType.PAWN);
+            final int promotionIndex = BitBoardUtils.index(movedPiece.getPieceAlliance(), promotionPiece.getPieceType());
+            material[side] += MATERIAL[promotionIndex] - MATERIAL[pawnIndex];
+            pieceSquare[side] += PIECE_SQUARE[promotionIndex][move.getDestinationCoordinate()] -
+                    PIECE_SQUARE[pawnIndex][move.getDestinationCoordinate()];
+        }
+    }
+
+    private static int locationBonus(final Alliance alliance,
+                                     final PieceType pieceType,
+                                     final int square) {
+        switch (pieceType) {
+            case PAWN:
+                return alliance.pawnBonus(square);
+            case KNIGHT:
+                return alliance.knightBonus(square);
+            case BISHOP:
+                return alliance.bishopBonus(square);
+            case ROOK:
+                return alliance.rookBonus(square);
+            case QUEEN:
+                return alliance.queenBonus(square);
+            case KING:
+                return alliance.kingBonus(square);
+            default:
+                throw new RuntimeException("Unknown piece type " + pieceType);
+        }
+    }
+}
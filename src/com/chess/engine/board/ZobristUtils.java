@@ -0,0 +1,115 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.pieces.King;
+import com.chess.engine.pieces.Pawn;
+import com.chess.engine.pieces.Piece;
+
+import java.util.Map;
+import java.util.Random;
+
+public enum ZobristUtils {
+
+    INSTANCE;
+
+    //vaste seed, zodat sleutels tussen runs gelijk blijven
+    private static final long SEED = 0x4A436865737321L;
+    private static final int WHITE_KING_SIDE = 0;
+    private static final int WHITE_QUEEN_SIDE = 1;
+    private static final int BLACK_KING_SIDE = 2;
+    private static final int BLACK_QUEEN_SIDE = 3;
+
+    private static final long[][] PIECE_KEYS = new long[Alliance.values().length * Piece.PieceType.values().length][BoardUtils.NUM_TILES];
+    private static final long[] CASTLING_KEYS = new long[4];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    private static final long SIDE_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int i = 0; i < pieceKeys.length; i++) {
+                pieceKeys[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_KEYS.length; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_KEYS.length; i++) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    public static long pieceKey(final Piece piece) {
+        return PIECE_KEYS[BitBoardUtils.index(piece.getPieceAlliance(), piece.getPieceType())][piece.getPiecePosition()];
+    }
+
+    //alleen de pionnen, voor de pionnenhashtabel van de evaluatie
+    static long calculatePawnKey(final Map<Integer, Piece> boardConfig) {
+        long key = 0L;
+        for (final Piece piece : boardConfig.values()) {
+            if (piece.getPieceType() == Piece.PieceType.PAWN) {
+                key ^= pieceKey(piece);
+            }
+        }
+        return key;
+    }
+
+    static long calculateKey(final Map<Integer, Piece> boardConfig,
+                             final Alliance nextMoveMaker,
+                             final Pawn enPassantPawn) {
+        long key = 0L;
+        for (final Piece piece : boardConfig.values()) {
+            key ^= pieceKey(piece);
+        }
+        if (nextMoveMaker.isBlack()) {
+            key ^= SIDE_KEY;
+        }
+        if (enPassantPawn != null) {
+            key ^= EN_PASSANT_KEYS[enPassantPawn.getPiecePosition() % BoardUtils.NUM_TILES_PER_ROW];
+        }
+        if (canCastle(boardConfig, 60, 63, Alliance.WHITE, true)) {
+            key ^= CASTLING_KEYS[WHITE_KING_SIDE];
+        }
+        if (canCastle(boardConfig, 60, 56, Alliance.WHITE, false)) {
+            key ^= CASTLING_KEYS[WHITE_QUEEN_SIDE];
+        }
+        if (canCastle(boardConfig, 4, 7, Alliance.BLACK, true)) {
+            key ^= CASTLING_KEYS[BLACK_KING_SIDE];
+        }
+        if (canCastle(boardConfig, 4, 0, Alliance.BLACK, false)) {
+            key ^= CASTLING_KEYS[BLACK_QUEEN_SIDE];
+        }
+        return key;
+    }
+
+    public static boolean hasCastlingRight(final Board board,
+                                           final Alliance alliance,
+                                           final boolean kingSide) {
+        final int kingSquare = alliance.isWhite() ? 60 : 4;
+        return canCastle(board.getPiece(kingSquare), board.getPiece(kingSide ? kingSquare + 3 : kingSquare - 4),
+                alliance, kingSide);
+    }
+
+    private static boolean canCastle(final Map<Integer, Piece> boardConfig,
+                                     final int kingSquare,
+                                     final int rookSquare,
+                                     final Alliance alliance,
+                                     final boolean kingSide) {
+        return canCastle(boardConfig.get(kingSquare), boardConfig.get(rookSquare), alliance, kingSide);
+    }
+
+    //rokade hangt in deze engine af van de rokadevlag van de koning en de eerste zet van koning en toren
+    private static boolean canCastle(final Piece king,
+                                     final Piece rook,
+                                     final Alliance alliance,
+                                     final boolean kingSide) {
+        if (king == null || rook == null || !king.getPieceType().isKing() || !rook.getPieceType().isRook() ||
+                king.getPieceAlliance() != alliance || rook.getPieceAlliance() != alliance ||
+                !king.isFirstMove() || !rook.isFirstMove()) {
+            return false;
+        }
+        final King castlingKing = (King) king;
+        return kingSide ? castlingKing.isKingSideCastleCapable() : castlingKing.isQueenSideCastleCapable();
+    }
+}
@@ -0,0 +1,289 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtilities;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/*
+ * Bouwt een Polyglot-boek uit PGN-bestanden. Een thread leest partijen, de andere threads spelen ze na tot maxPly en
+ * tellen per (stelling, zet) het aantal partijen en de behaalde halve punten in een eigen BookStatistics; aan het
+ * einde worden die samengevoegd. Het gewicht in het boek is 2 * winst + remise voor de speler die de zet deed.
+ *
+ * Gebruik: BookBuilder [-depth plies] [-minElo elo] [-minGames n] [-threads n] [-zobrist] <book.bin> <pgn...>
+ * Met -zobrist worden de sleutels van de engine gebruikt in plaats van Polyglot-sleutels; zo'n boek is alleen te openen
+ * met PolyglotBook.open(pad, Board::getZobristKey), niet vanuit de GUI.
+ */
+public final class BookBuilder {
+
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final int maxPly;
+    private final int minElo;
+    private final int minGames;
+    private final int threads;
+    private final ToLongFunction<Board> keyFunction;
+    private final BookStatistics statistics;
+    private final LongAdder gamesRead;
+    private final LongAdder gamesUsed;
+
+    private BookBuilder(final Builder builder) {
+        this.maxPly = builder.maxPly;
+        this.minElo = builder.minElo;
+        this.minGames = builder.minGames;
+        this.threads = builder.threads;
+        this.keyFunction = builder.keyFunction;
+        this.statistics = new BookStatistics();
+        this.gamesRead = new LongAdder();
+        this.gamesUsed = new LongAdder();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final Builder builder = new Builder();
+        int argument = 0;
+        while (argument < args.length && args[argument].startsWith("-")) {
+            switch (args[argument++]) {
+                case "-depth":
+                    builder.setMaxPly(Integer.parseInt(args[argument++]));
+                    break;
+                case "-minElo":
+                    builder.setMinElo(Integer.parseInt(args[argument++]));
+                    break;
+                case "-minGames":
+                    builder.setMinGames(Integer.parseInt(args[argument++]));
+                    break;
+                case "-threads":
+                    builder.setThreads(Integer.parseInt(args[argument++]));
+                    break;
+                case "-zobrist":
+                    builder.setKeyFunction(Board::getZobristKey);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[argument - 1]);
+            }
+        }
+        if (args.length - argument < 2) {
+            System.err.println("usage: BookBuilder [-depth plies] [-minElo elo] [-minGames n] [-threads n] [-zobrist] <book.bin> <pgn...>");
+            return;
+        }
+        final BookBuilder bookBuilder = builder.build();
+        final long startTime = System.currentTimeMillis();
+        for (int file = argument + 1; file < args.length; file++) {
+            bookBuilder.addGames(Paths.get(args[file]));
+        }
+        bookBuilder.write(Paths.get(args[argument]));
+        System.out.println(bookBuilder.getNumGamesUsed() + " of " + bookBuilder.getNumGamesRead() + " games, " +
+                bookBuilder.getNumEntries() + " entries in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    public void addGames(final Path pgnFile) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        //de lezer mag niet te ver voorlopen, anders staat het hele bestand als partijen in het geheugen
+        final Semaphore batchesInFlight = new Semaphore(2 * this.threads);
+        final List<BookStatistics> partialStatistics = new CopyOnWriteArrayList<>();
+        final ThreadLocal<BookStatistics> threadStatistics = ThreadLocal.withInitial(() -> {
+            final BookStatistics statistics = new BookStatistics();
+            partialStatistics.add(statistics);
+            return statistics;
+        });
+        final List<Future<?>> pending = new ArrayList<>();
+        try (final PgnReader reader = PgnReader.open(pgnFile)) {
+            List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                this.gamesRead.increment();
+                batch.add(game);
+                if (batch.size() == BATCH_SIZE) {
+                    submit(executor, batchesInFlight, batch, threadStatistics, pending);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    checkFinished(pending, pgnFile, false);
+                }
+            }
+            submit(executor, batchesInFlight, batch, threadStatistics, pending);
+            checkFinished(pending, pgnFile, true);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while reading " + pgnFile);
+        } finally {
+            executor.shutdownNow();
+        }
+        for (final BookStatistics statistics : partialStatistics) {
+            this.statistics.merge(statistics);
+        }
+    }
+
+    public void write(final Path bookFile) throws IOException {
+        final Integer[] slots = this.statistics.sortedSlots();
+        long maxScore = 1;
+        for (final int slot : slots) {
+            maxScore = Math.max(maxScore, this.statistics.getScore(slot));
+        }
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bookFile)))) {
+            for (final int slot : slots) {
+                if (this.statistics.getCount(slot) < this.minGames) {
+                    continue;
+                }
+                final long score = this.statistics.getScore(slot);
+                output.writeLong(this.statistics.getKey(slot));
+                output.writeShort(this.statistics.getMove(slot));
+                output.writeShort((int) (maxScore > MAX_WEIGHT ? score * MAX_WEIGHT / maxScore : score));
+                output.writeInt(0);
+            }
+        }
+    }
+
+    public int getNumEntries() {
+        return this.statistics.size();
+    }
+
+    public long getNumGamesRead() {
+        return this.gamesRead.sum();
+    }
+
+    public long getNumGamesUsed() {
+        return this.gamesUsed.sum();
+    }
+
+    private void submit(final ExecutorService executor,
+                        final Semaphore batchesInFlight,
+                        final List<PgnGame> batch,
+                        final ThreadLocal<BookStatistics> threadStatistics,
+                        final List<Future<?>> pending) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchesInFlight.acquire();
+        pending.add(executor.submit(() -> {
+            try {
+                for (final PgnGame game : batch) {
+                    addGame(game, threadStatistics.get());
+                }
+            } finally {
+                batchesInFlight.release();
+            }
+        }));
+    }
+
+    //een fout in een worker breekt het hele bestand af, anders zou een half boek als geslaagd weggeschreven worden
+    private static void checkFinished(final List<Future<?>> pending,
+                                      final Path pgnFile,
+                                      final boolean waitForAll) throws IOException, InterruptedException {
+        final Iterator<Future<?>> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            final Future<?> future = iterator.next();
+            if (!waitForAll && !future.isDone()) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                throw new IOException("could not process the games in " + pgnFile, e.getCause());
+            }
+            iterator.remove();
+        }
+    }
+
+    private void addGame(final PgnGame game,
+                         final BookStatistics statistics) {
+        final int whiteScore = whiteScore(game.getResult());
+        //partijen vanuit een andere beginstelling en zonder uitslag tellen niet mee
+        if (whiteScore < 0 || game.getTag("FEN") != null ||
+                Math.min(game.getElo(true), game.getElo(false)) < this.minElo) {
+            return;
+        }
+        Board board = Board.createStandardBoard();
+        final List<String> moves = game.getMoves();
+        for (int ply = 0; ply < Math.min(this.maxPly, moves.size()); ply++) {
+            final Move move = PgnUtilities.createMoveFromSAN(board, moves.get(ply));
+            if (move == MoveFactory.getNullMove()) {
+                break;
+            }
+            final int score = board.currentPlayer().getAlliance().isWhite() ? whiteScore : 2 - whiteScore;
+            statistics.add(this.keyFunction.applyAsLong(board), PolyglotBook.encodeMove(move), 1, score);
+            board = board.currentPlayer().makeMove(move).getToBoard();
+        }
+        this.gamesUsed.increment();
+    }
+
+    //halve punten voor wit, -1 voor een onbekende uitslag
+    private static int whiteScore(final String result) {
+        switch (result) {
+            case "1-0":
+                return 2;
+            case "0-1":
+                return 0;
+            case "1/2-1/2":
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    public static class Builder {
+
+        private int maxPly;
+        private int minElo;
+        private int minGames;
+        private int threads;
+        private ToLongFunction<Board> keyFunction;
+
+        public Builder() {
+            this.maxPly = 20;
+            this.minElo = 0;
+            this.minGames = 1;
+            this.threads = Runtime.getRuntime().availableProcessors();
+            this.keyFunction = PolyglotKeys.INSTANCE::key;
+        }
+
+        public Builder setMaxPly(final int maxPly) {
+            this.maxPly = maxPly;
+            return this;
+        }
+
+        public Builder setMinElo(final int minElo) {
+            this.minElo = minElo;
+            return this;
+        }
+
+        public Builder setMinGames(final int minGames) {
+            this.minGames = minGames;
+            return this;
+        }
+
+        public Builder setThreads(final int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        public Builder setKeyFunction(final ToLongFunction<Board> keyFunction) {
+            this.keyFunction = keyFunction;
+            return this;
+        }
+
+        public BookBuilder build() {
+            return new BookBuilder(this);
+        }
+    }
+}
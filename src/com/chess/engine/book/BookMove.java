@@ -0,0 +1,35 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Move;
+
+public final class BookMove {
+
+    private final Move move;
+    private final int weight;
+    private final int learn;
+
+    BookMove(final Move move,
+             final int weight,
+             final int learn) {
+        this.move = move;
+        this.weight = weight;
+        this.learn = learn;
+    }
+
+    public Move getMove() {
+        return this.move;
+    }
+
+    public int getWeight() {
+        return this.weight;
+    }
+
+    public int getLearn() {
+        return this.learn;
+    }
+
+    @Override
+    public String toString() {
+        return this.move + " (" + this.weight + ")";
+    }
+}
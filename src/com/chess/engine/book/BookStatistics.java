@@ -0,0 +1,127 @@
+package com.chess.engine.book;
+
+import java.util.Arrays;
+
+/*
+ * Telt per (stelling, zet) hoe vaak de zet gespeeld is en hoeveel halve punten hij opleverde voor de speler die hem
+ * speelde. Open addressing op primitieve arrays: geen Long- of Integer-objecten per entry, wat bij miljoenen
+ * stellingen het verschil maakt in geheugen en snelheid.
+ */
+final class BookStatistics {
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private long[] keys;
+    private int[] moves;
+    private int[] counts;
+    private long[] scores;
+    private int size;
+
+    BookStatistics() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    void add(final long key,
+             final int move,
+             final int count,
+             final long score) {
+        if (2 * (this.size + 1) > this.keys.length) {
+            grow();
+        }
+        final int slot = findSlot(key, move);
+        if (this.counts[slot] == 0) {
+            this.keys[slot] = key;
+            this.moves[slot] = move;
+            this.size++;
+        }
+        this.counts[slot] += count;
+        this.scores[slot] += score;
+    }
+
+    void merge(final BookStatistics other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.counts[slot] != 0) {
+                add(other.keys[slot], other.moves[slot], other.counts[slot], other.scores[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    //de bezette slots zoals Polyglot ze verwacht: op sleutel (unsigned), binnen een stelling de beste zet eerst
+    Integer[] sortedSlots() {
+        final Integer[] slots = new Integer[this.size];
+        int next = 0;
+        for (int slot = 0; slot < this.keys.length; slot++) {
+            if (this.counts[slot] != 0) {
+                slots[next++] = slot;
+            }
+        }
+        Arrays.sort(slots, (first, second) -> {
+            final int byKey = Long.compareUnsigned(this.keys[first], this.keys[second]);
+            return byKey != 0 ? byKey : Long.compare(this.scores[second], this.scores[first]);
+        });
+        return slots;
+    }
+
+    long getKey(final int slot) {
+        return this.keys[slot];
+    }
+
+    int getMove(final int slot) {
+        return this.moves[slot];
+    }
+
+    int getCount(final int slot) {
+        return this.counts[slot];
+    }
+
+    long getScore(final int slot) {
+        return this.scores[slot];
+    }
+
+    private int findSlot(final long key,
+                         final int move) {
+        final int mask = this.keys.length - 1;
+        int slot = hash(key, move) & mask;
+        while (this.counts[slot] != 0 && (this.keys[slot] != key || this.moves[slot] != move)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        final long[] oldKeys = this.keys;
+        final int[] oldMoves = this.moves;
+        final int[] oldCounts = this.counts;
+        final long[] oldScores = this.scores;
+        allocate(2 * oldKeys.length);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                final int newSlot = findSlot(oldKeys[slot], oldMoves[slot]);
+                this.keys[newSlot] = oldKeys[slot];
+                this.moves[newSlot] = oldMoves[slot];
+                this.counts[newSlot] = oldCounts[slot];
+                this.scores[newSlot] = oldScores[slot];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.moves = new int[capacity];
+        this.counts = new int[capacity];
+        this.scores = new long[capacity];
+    }
+
+    //de sleutels zijn al willekeurig, de zet wordt erdoor gemengd zodat zetten in dezelfde stelling verspreid liggen
+    private static int hash(final long key,
+                            final int move) {
+        long h = key ^ (move * 0x9E3779B97F4A7C15L);
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,157 @@
+package com.chess.engine.book;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.MoveTransition;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+/*
+ * Een openingsboek in het Polyglot .bin formaat: entries van 16 bytes (sleutel, zet, gewicht, learn), big-endian en
+ * gesorteerd op sleutel. Het bestand wordt alleen-lezen in het geheugen gemapt en per stelling wordt binair gezocht,
+ * dus openen kost niets en een zet opzoeken een paar microseconden.
+ */
+public final class PolyglotBook {
+
+    static final int ENTRY_SIZE = 16;
+
+    private static final PieceType[] PROMOTION_TYPES = {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private final MappedByteBuffer entries;
+    private final int numEntries;
+    private final ToLongFunction<Board> keyFunction;
+
+    private PolyglotBook(final MappedByteBuffer entries,
+                         final ToLongFunction<Board> keyFunction) {
+        this.entries = entries;
+        this.numEntries = entries.capacity() / ENTRY_SIZE;
+        this.keyFunction = keyFunction;
+    }
+
+    public static PolyglotBook open(final Path file) throws IOException {
+        return open(file, PolyglotKeys.INSTANCE::key);
+    }
+
+    //met een andere sleutelfunctie kunnen ook boeken gelezen worden die niet met Polyglot-sleutels gemaakt zijn
+    public static PolyglotBook open(final Path file,
+                                    final ToLongFunction<Board> keyFunction) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() % ENTRY_SIZE != 0) {
+                throw new IOException(file + " is not a Polyglot book");
+            }
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), keyFunction);
+        }
+    }
+
+    public int size() {
+        return this.numEntries;
+    }
+
+    //alle legale boekzetten voor de stelling, in de volgorde van het boek (Polyglot zet de zwaarste eerst)
+    public List<BookMove> getMoves(final Board board) {
+        final long key = this.keyFunction.applyAsLong(board);
+        final List<BookMove> moves = new ArrayList<>();
+        for (int entry = firstEntry(key); entry < this.numEntries && keyAt(entry) == key; entry++) {
+            final int offset = entry * ENTRY_SIZE;
+            final Move move = decodeMove(board, this.entries.getShort(offset + 8) & 0xFFFF);
+            //sleutels kunnen botsen, dus alleen zetten die in deze stelling legaal zijn tellen
+            if (move != MoveFactory.getNullMove()) {
+                moves.add(new BookMove(move, this.entries.getShort(offset + 10) & 0xFFFF, this.entries.getInt(offset + 12)));
+            }
+        }
+        return Collections.unmodifiableList(moves);
+    }
+
+    //kiest een zet met kans evenredig aan het gewicht; de null move als de stelling niet in het boek staat
+    public Move pickMove(final Board board,
+                         final Random random) {
+        final List<BookMove> moves = getMoves(board);
+        int totalWeight = 0;
+        for (final BookMove move : moves) {
+            totalWeight += move.getWeight();
+        }
+        if (totalWeight == 0) {
+            return MoveFactory.getNullMove();
+        }
+        int choice = random.nextInt(totalWeight);
+        for (final BookMove move : moves) {
+            choice -= move.getWeight();
+            if (choice < 0) {
+                return move.getMove();
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    //rokade staat in Polyglot als koning slaat eigen toren: e1h1, e1a1, e8h8 en e8a8
+    static int encodeMove(final Move move) {
+        int from = PolyglotKeys.toPolyglotSquare(move.getCurrentCoordinate());
+        int to = PolyglotKeys.toPolyglotSquare(move.getDestinationCoordinate());
+        if (move.isCastlingMove()) {
+            to = to > from ? from + 3 : from - 4;
+        }
+        int promotion = 0;
+        if (move instanceof Move.PawnPromotion) {
+            final PieceType promotionType = ((Move.PawnPromotion) move).getPromotionPiece().getPieceType();
+            for (int type = 1; type < PROMOTION_TYPES.length; type++) {
+                if (PROMOTION_TYPES[type] == promotionType) {
+                    promotion = type;
+                }
+            }
+        }
+        return (promotion << 12) | (from << 6) | to;
+    }
+
+    static Move decodeMove(final Board board,
+                           final int polyglotMove) {
+        final int from = PolyglotKeys.fromPolyglotSquare((polyglotMove >>> 6) & 63);
+        int to = PolyglotKeys.fromPolyglotSquare(polyglotMove & 63);
+        final PieceType promotionType = PROMOTION_TYPES[Math.min((polyglotMove >>> 12) & 7, PROMOTION_TYPES.length - 1)];
+        final boolean kingMove = board.getPiece(from) != null && board.getPiece(from).getPieceType() == PieceType.KING;
+        if (kingMove && (from == 60 || from == 4) && (to == from + 3 || to == from - 4)) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getCurrentCoordinate() != from || move.getDestinationCoordinate() != to) {
+                continue;
+            }
+            final PieceType movePromotion = move instanceof Move.PawnPromotion ?
+                    ((Move.PawnPromotion) move).getPromotionPiece().getPieceType() : null;
+            if (movePromotion == promotionType) {
+                final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+                return moveTransition.getMoveStatus().isDone() ? move : MoveFactory.getNullMove();
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    //eerste entry met een sleutel die niet kleiner is, sleutels zijn unsigned
+    private int firstEntry(final long key) {
+        int low = 0;
+        int high = this.numEntries;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(final int entry) {
+        return this.entries.getLong(entry * ENTRY_SIZE);
+    }
+}
@@ -0,0 +1,36 @@
+package com.chess.engine.nnue;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+/*
+ * HalfKP invoer: per perspectief een feature voor elk stuk behalve de koningen, gecombineerd met het veld van de
+ * eigen koning. Zwart kijkt naar een verticaal gespiegeld bord, zodat beide perspectieven dezelfde gewichten delen.
+ */
+final class HalfKP {
+
+    //pion tot en met dame, van het perspectief zelf en van de tegenstander
+    static final int PIECE_KINDS = 10;
+    static final int NUM_FEATURES = BoardUtils.NUM_TILES * PIECE_KINDS * BoardUtils.NUM_TILES;
+
+    private static final int MIRROR_RANKS = 56;
+
+    private HalfKP() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    static int featureIndex(final Alliance perspective,
+                            final int kingSquare,
+                            final Alliance pieceAlliance,
+                            final PieceType pieceType,
+                            final int square) {
+        final int kind = 2 * pieceType.ordinal() + (pieceAlliance == perspective ? 0 : 1);
+        return (orient(perspective, kingSquare) * PIECE_KINDS + kind) * BoardUtils.NUM_TILES + orient(perspective, square);
+    }
+
+    private static int orient(final Alliance perspective,
+                              final int square) {
+        return perspective.isWhite() ? square : square ^ MIRROR_RANKS;
+    }
+}
@@ -0,0 +1,161 @@
+package com.chess.engine.nnue;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.ai.BoardEvaluator;
+import com.chess.engine.player.ai.StandardBoardEvaluator;
+
+/*
+ * Evaluatie met een NnueNetwork. De borden zijn onveranderlijk, dus in plaats van make/unmake wordt de accumulator
+ * van een bord afgeleid van die van het bord ervoor (transitionMove.getBoard()): alleen de stukken die verschillen
+ * tussen de twee borden worden afgetrokken of opgeteld. Een koningszet ververst het perspectief van die koning.
+ * Accumulators staan per thread in een tabel op Zobrist-sleutel, zodat broers in de zoekboom die van hun ouder delen.
+ */
+public final class NnueEvaluator implements BoardEvaluator {
+
+    public static final int DEFAULT_ENTRIES = 1 << 12;
+
+    //verder terug dan dit is een volledige verversing goedkoper dan alle verschillen bijwerken
+    private static final int MAX_UPDATE_CHAIN = 4;
+    private static final int MAX_FEATURES = 32;
+
+    private final NnueNetwork network;
+    private final int entries;
+    private final ThreadLocal<AccumulatorTable> tables;
+
+    public NnueEvaluator(final NnueNetwork network) {
+        this(network, DEFAULT_ENTRIES);
+    }
+
+    //het aantal entries per thread wordt naar boven afgerond op een macht van twee
+    public NnueEvaluator(final NnueNetwork network,
+                         final int entries) {
+        if (entries <= 0) {
+            throw new IllegalArgumentException("entries must be positive: " + entries);
+        }
+        this.network = network;
+        this.entries = Integer.highestOneBit(entries) == entries ? entries : Integer.highestOneBit(entries) << 1;
+        this.tables = ThreadLocal.withInitial(AccumulatorTable::new);
+    }
+
+    @Override
+    public int evaluate(final Board board,
+                        final int depth) {
+        //de matscore moet op dezelfde schaal liggen als die van de zoekfunctie
+        if (board.currentPlayer().isInCheckMate()) {
+            return StandardBoardEvaluator.get().evaluate(board, depth);
+        }
+        final AccumulatorTable table = this.tables.get();
+        final short[] accumulator = table.accumulator(board, MAX_UPDATE_CHAIN);
+        final int hiddenSize = this.network.getHiddenSize();
+        final boolean whiteToMove = board.currentPlayer().getAlliance().isWhite();
+        final int score = this.network.propagate(accumulator,
+                whiteToMove ? 0 : hiddenSize, whiteToMove ? hiddenSize : 0, table.hidden1);
+        return whiteToMove ? score : -score;
+    }
+
+    private final class AccumulatorTable {
+
+        private final long[] keys;
+        //per entry eerst het witte, dan het zwarte perspectief
+        private final short[][] accumulators;
+        private final boolean[] used;
+        private final int[] features;
+        private final int[] hidden1;
+
+        private AccumulatorTable() {
+            this.keys = new long[entries];
+            this.accumulators = new short[entries][2 * network.getHiddenSize()];
+            this.used = new boolean[entries];
+            this.features = new int[MAX_FEATURES];
+            this.hidden1 = new int[network.getLayer1Size()];
+        }
+
+        private short[] accumulator(final Board board,
+                                    final int chain) {
+            final long key = board.getZobristKey();
+            final int slot = (int) (key ^ (key >>> 32)) & (entries - 1);
+            final short[] accumulator = this.accumulators[slot];
+            if (this.used[slot] && this.keys[slot] == key) {
+                return accumulator;
+            }
+            final Move transitionMove = board.getTransitionMove();
+            final Board parent = transitionMove.getBoard();
+            if (chain > 0 && parent != null) {
+                final short[] parentAccumulator = accumulator(parent, chain - 1);
+                if (parentAccumulator != accumulator) {
+                    System.arraycopy(parentAccumulator, 0, accumulator, 0, accumulator.length);
+                }
+                update(parent, board, accumulator);
+            } else {
+                refresh(board, Alliance.WHITE, accumulator);
+                refresh(board, Alliance.BLACK, accumulator);
+            }
+            this.keys[slot] = key;
+            this.used[slot] = true;
+            return accumulator;
+        }
+
+        private void update(final Board parent,
+                            final Board board,
+                            final short[] accumulator) {
+            for (final Alliance perspective : Alliance.values()) {
+                final int kingSquare = kingSquare(board, perspective);
+                if (kingSquare != kingSquare(parent, perspective)) {
+                    refresh(board, perspective, accumulator);
+                    continue;
+                }
+                final int offset = offset(perspective);
+                for (final Alliance alliance : Alliance.values()) {
+                    for (final PieceType pieceType : PieceType.values()) {
+                        if (pieceType.isKing()) {
+                            continue;
+                        }
+                        final long before = parent.getPieceBitBoard(alliance, pieceType);
+                        final long after = board.getPieceBitBoard(alliance, pieceType);
+                        for (long removed = before & ~after; removed != 0; removed &= removed - 1) {
+                            network.removeFeature(accumulator, offset, HalfKP.featureIndex(perspective, kingSquare,
+                                    alliance, pieceType, Long.numberOfTrailingZeros(removed)));
+                        }
+                        for (long added = after & ~before; added != 0; added &= added - 1) {
+                            network.addFeature(accumulator, offset, HalfKP.featureIndex(perspective, kingSquare,
+                                    alliance, pieceType, Long.numberOfTrailingZeros(added)));
+                        }
+                    }
+                }
+            }
+        }
+
+        private void refresh(final Board board,
+                             final Alliance perspective,
+                             final short[] accumulator) {
+            final int kingSquare = kingSquare(board, perspective);
+            int numFeatures = 0;
+            for (final Alliance alliance : Alliance.values()) {
+                for (final PieceType pieceType : PieceType.values()) {
+                    if (pieceType.isKing()) {
+                        continue;
+                    }
+                    for (long pieces = board.getPieceBitBoard(alliance, pieceType); pieces != 0; pieces &= pieces - 1) {
+                        this.features[numFeatures++] = HalfKP.featureIndex(perspective, kingSquare,
+                                alliance, pieceType, Long.numberOfTrailingZeros(pieces));
+                    }
+                }
+            }
+            network.refresh(accumulator, offset(perspective), this.features, numFeatures);
+        }
+
+        private int offset(final Alliance perspective) {
+            return perspective.isWhite() ? 0 : network.getHiddenSize();
+        }
+    }
+
+    private static int kingSquare(final Board board,
+                                  final Alliance alliance) {
+        final long king = board.getPieceBitBoard(alliance, PieceType.KING);
+        return king == 0 ? BoardUtils.NUM_TILES - 1 : Long.numberOfTrailingZeros(king);
+    }
+}
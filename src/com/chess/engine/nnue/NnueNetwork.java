@@ -0,0 +1,154 @@
+package com.chess.engine.nnue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Een gekwantiseerd netwerk: HalfKP -> H (int16, per perspectief) -> L1 -> L2 -> 1, met clipped ReLU (0..127) tussen
+ * de lagen. Het bestand is little-endian:
+ *   int magic, int versie, int aantal features, int H, int L1, int L2
+ *   short[H] bias en short[features * H] gewichten van de invoerlaag
+ *   int[L1] bias en byte[L1 * 2H] gewichten, int[L2] bias en byte[L2 * L1] gewichten, int bias en byte[L2] gewichten
+ * De eerste laag krijgt de accumulator van de speler aan zet gevolgd door die van de tegenstander.
+ */
+public final class NnueNetwork {
+
+    static final int MAGIC = 0x4A4E4E55;
+    static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 24;
+    private static final int CLIP = 127;
+    private static final int WEIGHT_SCALE_BITS = 6;
+    //deler van de uitvoer naar centipionnen
+    private static final int OUTPUT_SCALE = 16;
+
+    private final int hiddenSize;
+    private final int layer1Size;
+    private final int layer2Size;
+    private final short[] featureBiases;
+    private final short[] featureWeights;
+    private final int[] layer1Biases;
+    private final byte[] layer1Weights;
+    private final int[] layer2Biases;
+    private final byte[] layer2Weights;
+    private final int outputBias;
+    private final byte[] outputWeights;
+
+    private NnueNetwork(final ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != HalfKP.NUM_FEATURES) {
+            throw new IOException("not a compatible network file");
+        }
+        this.hiddenSize = buffer.getInt();
+        this.layer1Size = buffer.getInt();
+        this.layer2Size = buffer.getInt();
+        if (this.hiddenSize <= 0 || this.layer1Size <= 0 || this.layer2Size <= 0 ||
+                buffer.remaining() != dataSize(this.hiddenSize, this.layer1Size, this.layer2Size)) {
+            throw new IOException("network file has the wrong size");
+        }
+        this.featureBiases = new short[this.hiddenSize];
+        this.featureWeights = new short[HalfKP.NUM_FEATURES * this.hiddenSize];
+        this.layer1Biases = new int[this.layer1Size];
+        this.layer1Weights = new byte[this.layer1Size * 2 * this.hiddenSize];
+        this.layer2Biases = new int[this.layer2Size];
+        this.layer2Weights = new byte[this.layer2Size * this.layer1Size];
+        this.outputWeights = new byte[this.layer2Size];
+        buffer.asShortBuffer().get(this.featureBiases).get(this.featureWeights);
+        buffer.position(buffer.position() + 2 * (this.featureBiases.length + this.featureWeights.length));
+        buffer.asIntBuffer().get(this.layer1Biases);
+        buffer.position(buffer.position() + 4 * this.layer1Size);
+        buffer.get(this.layer1Weights);
+        buffer.asIntBuffer().get(this.layer2Biases);
+        buffer.position(buffer.position() + 4 * this.layer2Size);
+        buffer.get(this.layer2Weights);
+        this.outputBias = buffer.getInt();
+        buffer.get(this.outputWeights);
+    }
+
+    public static NnueNetwork load(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("not a compatible network file: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new NnueNetwork(buffer.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    static long dataSize(final int hiddenSize,
+                         final int layer1Size,
+                         final int layer2Size) {
+        return 2L * hiddenSize * (1 + HalfKP.NUM_FEATURES) + 4L * layer1Size + (long) layer1Size * 2 * hiddenSize +
+                4L * layer2Size + (long) layer2Size * layer1Size + 4 + layer2Size;
+    }
+
+    //accumulator = bias plus de gewichten van alle actieve features
+    void refresh(final short[] accumulator,
+                 final int offset,
+                 final int[] features,
+                 final int numFeatures) {
+        System.arraycopy(this.featureBiases, 0, accumulator, offset, this.hiddenSize);
+        for (int i = 0; i < numFeatures; i++) {
+            addFeature(accumulator, offset, features[i]);
+        }
+    }
+
+    void addFeature(final short[] accumulator,
+                    final int offset,
+                    final int feature) {
+        final int weights = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[offset + i] += this.featureWeights[weights + i];
+        }
+    }
+
+    void removeFeature(final short[] accumulator,
+                       final int offset,
+                       final int feature) {
+        final int weights = feature * this.hiddenSize;
+        for (int i = 0; i < this.hiddenSize; i++) {
+            accumulator[offset + i] -= this.featureWeights[weights + i];
+        }
+    }
+
+    int getLayer1Size() {
+        return this.layer1Size;
+    }
+
+    //score in centipionnen voor de speler aan zet; hidden1 is werkruimte van getLayer1Size() ints
+    int propagate(final short[] accumulator,
+                  final int usOffset,
+                  final int themOffset,
+                  final int[] hidden1) {
+        for (int out = 0; out < this.layer1Size; out++) {
+            final int weights = out * 2 * this.hiddenSize;
+            int sum = this.layer1Biases[out];
+            for (int i = 0; i < this.hiddenSize; i++) {
+                sum += this.layer1Weights[weights + i] * clip(accumulator[usOffset + i]);
+                sum += this.layer1Weights[weights + this.hiddenSize + i] * clip(accumulator[themOffset + i]);
+            }
+            hidden1[out] = clip(sum >> WEIGHT_SCALE_BITS);
+        }
+        int output = this.outputBias;
+        for (int out = 0; out < this.layer2Size; out++) {
+            final int weights = out * this.layer1Size;
+            int sum = this.layer2Biases[out];
+            for (int i = 0; i < this.layer1Size; i++) {
+                sum += this.layer2Weights[weights + i] * hidden1[i];
+            }
+            output += this.outputWeights[out] * clip(sum >> WEIGHT_SCALE_BITS);
+        }
+        return output / OUTPUT_SCALE;
+    }
+
+    private static int clip(final int value) {
+        return Math.max(0, Math.min(CLIP, value));
+    }
+}
@@ -1,10 +1,19 @@
 package com.chess.engine.player;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
 import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece.PieceType;
 
 public enum MoveUtils {
     INSTANCE;
 
+    private static final int MAX_EXCHANGE_LENGTH = 32;
+    private static final PieceType[] LEAST_VALUABLE_FIRST = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
     public static int exchangeScore(final Move move) {
         if (move == Move.MoveFactory.getNullMove()) {
             return 1;
@@ -14,4 +23,94 @@ public enum MoveUtils {
                 exchangeScore(move.getBoard().getTransitionMove());
 
     }
+
+    public static int staticExchangeEvaluation(final Move move) {
+        if (move == Move.MoveFactory.getNullMove() || move.isCastlingMove()) {
+            return 0;
+        }
+        final Board board = move.getBoard();
+        final int square = move.getDestinationCoordinate();
+        long occupancy = board.getOccupancy();
+        int capturedValue = 0;
+        if (move.isAttack()) {
+            capturedValue = move.getAttackedPiece().getPieceValue();
+            //bij en passant staat het geslagen stuk niet op het doelveld
+            occupancy &= ~BitBoardUtils.squareMask(move.getAttackedPiece().getPiecePosition());
+        }
+        int movedValue = move.getMovedPiece().getPieceValue();
+        if (move instanceof Move.PawnPromotion) {
+            final int promotedValue = ((Move.PawnPromotion) move).getPromotionPiece().getPieceValue();
+            capturedValue += promotedValue - movedValue;
+            movedValue = promotedValue;
+        }
+        return exchange(board, square, move.getCurrentCoordinate(), movedValue, capturedValue,
+                move.getMovedPiece().getPieceAlliance(), occupancy);
+    }
+
+    public static int staticExchangeEvaluation(final Board board,
+                                               final int square) {
+        if (board.getPiece(square) == null) {
+            return 0;
+        }
+        final Alliance attacker = board.currentPlayer().getAlliance();
+        final long occupancy = board.getOccupancy();
+        final long fromMask = leastValuableAttacker(board, BitBoardUtils.attackersTo(board, square, occupancy), attacker);
+        if (fromMask == BitBoardUtils.EMPTY || board.getPiece(square).getPieceAlliance() == attacker) {
+            return 0;
+        }
+        final int from = Long.numberOfTrailingZeros(fromMask);
+        return Math.max(0, exchange(board, square, from, board.getPiece(from).getPieceValue(),
+                board.getPiece(square).getPieceValue(), attacker, occupancy));
+    }
+
+    private static int exchange(final Board board,
+                                final int square,
+                                final int from,
+                                final int movedValue,
+                                final int capturedValue,
+                                final Alliance alliance,
+                                final long startOccupancy) {
+        final int[] gain = new int[MAX_EXCHANGE_LENGTH];
+        final long diagonalSliders = board.getPieceBitBoard(PieceType.BISHOP) | board.getPieceBitBoard(PieceType.QUEEN);
+        final long straightSliders = board.getPieceBitBoard(PieceType.ROOK) | board.getPieceBitBoard(PieceType.QUEEN);
+        long occupancy = startOccupancy & ~BitBoardUtils.squareMask(from);
+        long attackers = BitBoardUtils.attackersTo(board, square, occupancy) & occupancy;
+        int valueOnSquare = movedValue;
+        Alliance side = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        int depth = 0;
+        gain[0] = capturedValue;
+        while (depth < MAX_EXCHANGE_LENGTH - 1) {
+            final long fromMask = leastValuableAttacker(board, attackers, side);
+            if (fromMask == BitBoardUtils.EMPTY) {
+                break;
+            }
+            depth++;
+            gain[depth] = valueOnSquare - gain[depth - 1];
+            valueOnSquare = board.getPiece(Long.numberOfTrailingZeros(fromMask)).getPieceValue();
+            occupancy &= ~fromMask;
+            //x-ray: stukken achter het verdwenen stuk vallen nu ook het veld aan
+            attackers |= (BitBoardUtils.bishopAttacks(square, occupancy) & diagonalSliders) |
+                    (BitBoardUtils.rookAttacks(square, occupancy) & straightSliders);
+            attackers &= occupancy;
+            side = side.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        }
+        //elke speler mag stoppen met slaan als verder slaan hem materiaal kost
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    private static long leastValuableAttacker(final Board board,
+                                              final long attackers,
+                                              final Alliance side) {
+        for (final PieceType pieceType : LEAST_VALUABLE_FIRST) {
+            final long candidates = attackers & board.getPieceBitBoard(side, pieceType);
+            if (candidates != BitBoardUtils.EMPTY) {
+                return Long.lowestOneBit(candidates);
+            }
+        }
+        return BitBoardUtils.EMPTY;
+    }
 }
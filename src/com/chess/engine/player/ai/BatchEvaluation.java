@@ -0,0 +1,60 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * Verdeelt een reeks borden in blokken over een ForkJoinPool. Een blok wordt door een enkele thread geevalueerd, dus
+ * de kladdata die de evaluators per thread bijhouden (EvalContext, NNUE-accumulators) wordt binnen een blok
+ * hergebruikt in plaats van per bord opnieuw opgezocht of aangemaakt.
+ */
+final class BatchEvaluation extends RecursiveAction {
+
+    //een evaluatie kost tientallen microseconden, dus kleinere blokken lonen de taak niet
+    private static final int CHUNK_SIZE = 64;
+
+    private final BoardEvaluator evaluator;
+    private final Board[] positions;
+    private final int[] scores;
+    private final int from;
+    private final int to;
+
+    private BatchEvaluation(final BoardEvaluator evaluator,
+                            final Board[] positions,
+                            final int[] scores,
+                            final int from,
+                            final int to) {
+        this.evaluator = evaluator;
+        this.positions = positions;
+        this.scores = scores;
+        this.from = from;
+        this.to = to;
+    }
+
+    static void evaluate(final BoardEvaluator evaluator,
+                         final Board[] positions,
+                         final int[] scores,
+                         final ForkJoinPool pool) {
+        if (scores.length < positions.length) {
+            throw new IllegalArgumentException("expected room for " + positions.length + " scores, got " + scores.length);
+        }
+        if (positions.length > 0) {
+            pool.invoke(new BatchEvaluation(evaluator, positions, scores, 0, positions.length));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (this.to - this.from <= CHUNK_SIZE) {
+            for (int position = this.from; position < this.to; position++) {
+                this.scores[position] = this.evaluator.evaluate(this.positions[position], 0);
+            }
+            return;
+        }
+        final int middle = (this.from + this.to) >>> 1;
+        invokeAll(new BatchEvaluation(this.evaluator, this.positions, this.scores, this.from, middle),
+                new BatchEvaluation(this.evaluator, this.positions, this.scores, middle, this.to));
+    }
+}
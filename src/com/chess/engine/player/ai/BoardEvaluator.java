@@ -2,8 +2,39 @@ package com.chess.engine.player.ai;
 
 import com.chess.engine.board.Board;
 
+import java.util.concurrent.ForkJoinPool;
+
 public interface BoardEvaluator {
 
 
     int evaluate(Board board, int depth);
+
+    /*
+     * Evaluatie binnen het zoekvenster (alpha, beta). Een evaluator mag dure termen overslaan als de score zeker
+     * buiten het venster valt; een score buiten het venster is dan alleen een grens, een score erbinnen is exact.
+     */
+    default int evaluate(final Board board,
+                         final int depth,
+                         final int alpha,
+                         final int beta) {
+        return evaluate(board, depth);
+    }
+
+    //hoe ver de overgeslagen termen een lazy score hooguit verschuiven, 0 als de evaluator nooit termen overslaat
+    default int getLazyMargin() {
+        return 0;
+    }
+
+    //scores[i] wordt de evaluatie van positions[i] op diepte 0, parallel over de gedeelde ForkJoinPool
+    default void evaluateBatch(final Board[] positions,
+                               final int[] scores) {
+        evaluateBatch(positions, scores, ForkJoinPool.commonPool());
+    }
+
+    //de evaluator moet door meerdere threads tegelijk te gebruiken zijn, zoals de evaluators van de engine
+    default void evaluateBatch(final Board[] positions,
+                               final int[] scores,
+                               final ForkJoinPool pool) {
+        BatchEvaluation.evaluate(this, positions, scores, pool);
+    }
 }
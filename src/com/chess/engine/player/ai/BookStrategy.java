@@ -0,0 +1,49 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.book.PolyglotBook;
+
+import java.util.Random;
+
+/*
+ * Speelt zetten uit een openingsboek zolang de stelling erin staat en laat de rest aan de onderliggende strategie over.
+ * Een boekzet kost geen zoektijd, die blijft over voor het middenspel.
+ */
+public class BookStrategy implements MoveStrategy {
+
+    private final PolyglotBook book;
+    private final MoveStrategy fallback;
+    private final Random random;
+    private boolean lastMoveFromBook;
+
+    public BookStrategy(final PolyglotBook book,
+                        final MoveStrategy fallback) {
+        this(book, fallback, new Random());
+    }
+
+    public BookStrategy(final PolyglotBook book,
+                        final MoveStrategy fallback,
+                        final Random random) {
+        this.book = book;
+        this.fallback = fallback;
+        this.random = random;
+        this.lastMoveFromBook = false;
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        final Move bookMove = this.book.pickMove(board, this.random);
+        this.lastMoveFromBook = bookMove != Move.MoveFactory.getNullMove();
+        return this.lastMoveFromBook ? bookMove : this.fallback.execute(board);
+    }
+
+    public boolean isLastMoveFromBook() {
+        return this.lastMoveFromBook;
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.lastMoveFromBook ? 0 : this.fallback.getNumBoardsEvaluated();
+    }
+}
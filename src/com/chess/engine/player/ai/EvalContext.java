@@ -0,0 +1,139 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
+
+/*
+ * Alles wat de evaluatietermen over een stelling moeten weten, verzameld in een enkele doorloop van de stukken met
+ * hun aanvalsbitboards; de legale zetten zijn niet nodig. Mobiliteit telt per stuksoort de aangevallen velden die
+ * niet door een eigen stuk bezet zijn en niet door een vijandelijke pion gedekt worden. Een context wordt per thread
+ * hergebruikt, dus fill() zet elk veld opnieuw.
+ * Per term levert coefficients() wit min zwart, zodat de score het inproduct met de EvaluationParameters is; de
+ * tuner gebruikt dezelfde coefficienten.
+ */
+final class EvalContext {
+
+    static final int D5 = BoardUtils.INSTANCE.getCoordinateAtPosition("d5");
+    static final int E5 = BoardUtils.INSTANCE.getCoordinateAtPosition("e5");
+    static final int D4 = BoardUtils.INSTANCE.getCoordinateAtPosition("d4");
+    static final int E4 = BoardUtils.INSTANCE.getCoordinateAtPosition("e4");
+
+    //onder dit aantal stukken tellen rokade en centrum niet meer mee
+    static final int MIDDLE_GAME_PIECES = 10;
+
+    private static final int SIDES = Alliance.values().length;
+    private static final PieceType[] MOBILITY_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+    private static final int[] CENTER_SQUARES = {D5, E5, D4, E4};
+    private static final long CENTER = BitBoardUtils.squareMask(D5) | BitBoardUtils.squareMask(E5) |
+            BitBoardUtils.squareMask(D4) | BitBoardUtils.squareMask(E4);
+
+    final int[] pieceCount = new int[SIDES];
+    final int[] centerOccupation = new int[SIDES];
+    //per kant en per stuksoort uit MOBILITY_TYPES
+    final int[][] mobility = new int[SIDES][MOBILITY_TYPES.length];
+    //aantal eigen stukken dat d5, e5, d4 en e4 aanvalt, per kant
+    final int[][] centerAttacks = new int[SIDES][4];
+    final boolean[] inCheck = new boolean[SIDES];
+    final boolean[] castled = new boolean[SIDES];
+    long pawnStructure;
+    long rookStructure;
+
+    void fill(final Board board) {
+        final long occupancy = board.getOccupancy();
+        for (final Alliance alliance : Alliance.values()) {
+            final int side = alliance.ordinal();
+            final long pieces = board.getOccupancy(alliance);
+            this.pieceCount[side] = Long.bitCount(pieces);
+            this.centerOccupation[side] = Long.bitCount(pieces & CENTER);
+        }
+        this.pawnStructure = PawnStructureAnalyzer.get().pawnStructure(board);
+        this.rookStructure = RookStructureAnalyzer.rookStructure(board);
+        fillAttacks(board, Alliance.WHITE, occupancy);
+        fillAttacks(board, Alliance.BLACK, occupancy);
+        this.inCheck[Alliance.WHITE.ordinal()] = board.whitePlayer().isInCheck();
+        this.inCheck[Alliance.BLACK.ordinal()] = board.blackPlayer().isInCheck();
+        this.castled[Alliance.WHITE.ordinal()] = board.whitePlayer().isCastled();
+        this.castled[Alliance.BLACK.ordinal()] = board.blackPlayer().isCastled();
+    }
+
+    int totalPieces() {
+        return this.pieceCount[0] + this.pieceCount[1];
+    }
+
+    //per term wit min zwart
+    void coefficients(final int[] coefficients) {
+        final int white = Alliance.WHITE.ordinal();
+        final int black = Alliance.BLACK.ordinal();
+        final boolean middleGame = totalPieces() >= MIDDLE_GAME_PIECES;
+        final int[] whiteAttacks = this.centerAttacks[white];
+        final int[] blackAttacks = this.centerAttacks[black];
+        coefficients[Term.KNIGHT_MOBILITY.ordinal()] = this.mobility[white][0] - this.mobility[black][0];
+        coefficients[Term.BISHOP_MOBILITY.ordinal()] = this.mobility[white][1] - this.mobility[black][1];
+        coefficients[Term.ROOK_MOBILITY.ordinal()] = this.mobility[white][2] - this.mobility[black][2];
+        coefficients[Term.QUEEN_MOBILITY.ordinal()] = this.mobility[white][3] - this.mobility[black][3];
+        coefficients[Term.CHECK.ordinal()] = (this.inCheck[black] ? 1 : 0) - (this.inCheck[white] ? 1 : 0);
+        coefficients[Term.CASTLED.ordinal()] = !middleGame ? 0 :
+                (this.castled[white] ? 1 : 0) - (this.castled[black] ? 1 : 0);
+        coefficients[Term.CENTER_OCCUPATION.ordinal()] = !middleGame ? 0 :
+                this.centerOccupation[white] - this.centerOccupation[black];
+        coefficients[Term.CENTER_ATTACK.ordinal()] = !middleGame ? 0 :
+                whiteAttacks[0] + whiteAttacks[2] - blackAttacks[1] - blackAttacks[3];
+        coefficients[Term.CENTER_ATTACK_PREFERRED.ordinal()] = !middleGame ? 0 :
+                whiteAttacks[1] + whiteAttacks[3] - blackAttacks[0] - blackAttacks[2];
+        for (int field = 0; field < PawnStructureAnalyzer.PAWN_TERMS.length; field++) {
+            coefficients[PawnStructureAnalyzer.PAWN_TERMS[field].ordinal()] =
+                    PawnStructureAnalyzer.count(this.pawnStructure, Alliance.WHITE, field) -
+                    PawnStructureAnalyzer.count(this.pawnStructure, Alliance.BLACK, field);
+        }
+        for (int field = 0; field < RookStructureAnalyzer.ROOK_TERMS.length; field++) {
+            coefficients[RookStructureAnalyzer.ROOK_TERMS[field].ordinal()] =
+                    RookStructureAnalyzer.count(this.rookStructure, Alliance.WHITE, field) -
+                    RookStructureAnalyzer.count(this.rookStructure, Alliance.BLACK, field);
+        }
+    }
+
+    private void fillAttacks(final Board board,
+                             final Alliance alliance,
+                             final long occupancy) {
+        final int side = alliance.ordinal();
+        final Alliance opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final int[] attacks = this.centerAttacks[side];
+        final long pawns = board.getPieceBitBoard(alliance, PieceType.PAWN);
+        for (int center = 0; center < CENTER_SQUARES.length; center++) {
+            //de velden van waaruit een eigen pion dit centrumveld aanvalt
+            attacks[center] = Long.bitCount(BitBoardUtils.pawnAttacks(opponent, CENTER_SQUARES[center]) & pawns);
+        }
+        final long safe = ~board.getOccupancy(alliance) &
+                ~BitBoardUtils.allPawnAttacks(opponent, board.getPieceBitBoard(opponent, PieceType.PAWN));
+        for (int type = 0; type < MOBILITY_TYPES.length; type++) {
+            int count = 0;
+            for (long pieces = board.getPieceBitBoard(alliance, MOBILITY_TYPES[type]); pieces != 0; pieces &= pieces - 1) {
+                final long pieceAttacks = BitBoardUtils.attacks(MOBILITY_TYPES[type], alliance,
+                        Long.numberOfTrailingZeros(pieces), occupancy);
+                count += Long.bitCount(pieceAttacks & safe);
+                addCenterAttacks(attacks, pieceAttacks);
+            }
+            this.mobility[side][type] = count;
+        }
+        final long king = board.getPieceBitBoard(alliance, PieceType.KING);
+        if (king != 0) {
+            addCenterAttacks(attacks, BitBoardUtils.kingAttacks(Long.numberOfTrailingZeros(king)));
+        }
+    }
+
+    private static void addCenterAttacks(final int[] attacks,
+                                         final long pieceAttacks) {
+        if ((pieceAttacks & CENTER) == 0) {
+            return;
+        }
+        for (int center = 0; center < CENTER_SQUARES.length; center++) {
+            if ((pieceAttacks & BitBoardUtils.squareMask(CENTER_SQUARES[center])) != 0) {
+                attacks[center]++;
+            }
+        }
+    }
+}
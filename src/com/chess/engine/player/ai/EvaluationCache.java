@@ -0,0 +1,147 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Board;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Een always-replace hashtabel voor evaluaties, voor een andere BoardEvaluator geplaatst. Elke entry is twee longs:
+ * de sleutel ge-xord met de data en de data zelf (score en diepte). Zonder locks kan een andere thread een entry half
+ * overschrijven; dan klopt sleutel ^ data niet meer en telt de entry als een miss in plaats van een foute score.
+ */
+public final class EvaluationCache implements BoardEvaluator {
+
+    public static final int DEFAULT_ENTRIES = 1 << 18;
+
+    //de evaluatie hangt af van de rokadevlag van de koning, die niet in de Zobrist-sleutel zit
+    private static final long WHITE_CASTLED_KEY = 0x6A09E667F3BCC908L;
+    private static final long BLACK_CASTLED_KEY = 0xBB67AE8584CAA73BL;
+    private static final int HASH_FULL_SAMPLE = 1000;
+    private static final long EMPTY = 0L;
+    private static final long BOUND_FLAG = 1L << 62;
+
+    private final BoardEvaluator evaluator;
+    private final long[] table;
+    private final int mask;
+    private final LongAdder probes;
+    private final LongAdder hits;
+
+    //het aantal entries wordt naar boven afgerond op een macht van twee
+    public EvaluationCache(final BoardEvaluator evaluator,
+                           final int entries) {
+        if (entries <= 0) {
+            throw new IllegalArgumentException("entries must be positive: " + entries);
+        }
+        final int size = Integer.highestOneBit(entries) == entries ? entries : Integer.highestOneBit(entries) << 1;
+        this.evaluator = evaluator;
+        this.table = new long[2 * size];
+        this.mask = size - 1;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+    }
+
+    @Override
+    public int evaluate(final Board board,
+                        final int depth) {
+        return evaluate(board, depth, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Een score die zo ver buiten het venster ligt dat de evaluator lazy kan zijn geweest, wordt als grens opgeslagen.
+     * Zo'n entry geldt alleen voor een venster waarin de evaluator met dezelfde score weer lazy zou zijn.
+     */
+    @Override
+    public int evaluate(final Board board,
+                        final int depth,
+                        final int alpha,
+                        final int beta) {
+        final long key = cacheKey(board);
+        final int slot = 2 * ((int) (key ^ (key >>> 32)) & this.mask);
+        final int lazyMargin = this.evaluator.getLazyMargin();
+        this.probes.increment();
+        final long data = this.table[slot + 1];
+        if ((this.table[slot] ^ data) == key && data != EMPTY && depth(data) == depth &&
+                (!isBound(data) || isLazy(score(data), lazyMargin, alpha, beta))) {
+            this.hits.increment();
+            return score(data);
+        }
+        final int score = this.evaluator.evaluate(board, depth, alpha, beta);
+        final long newData = pack(score, depth, lazyMargin > 0 && isLazy(score, lazyMargin, alpha, beta));
+        this.table[slot] = key ^ newData;
+        this.table[slot + 1] = newData;
+        return score;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, EMPTY);
+        this.probes.reset();
+        this.hits.reset();
+    }
+
+    public int size() {
+        return this.mask + 1;
+    }
+
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public double getHitRate() {
+        final long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+    //bezetting in promille, geschat uit de eerste entries zoals UCI hashfull
+    public int hashFull() {
+        final int sample = Math.min(HASH_FULL_SAMPLE, size());
+        int used = 0;
+        for (int entry = 0; entry < sample; entry++) {
+            if (this.table[2 * entry + 1] != EMPTY) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private static long cacheKey(final Board board) {
+        long key = board.getZobristKey();
+        if (board.whitePlayer().isCastled()) {
+            key ^= WHITE_CASTLED_KEY;
+        }
+        if (board.blackPlayer().isCastled()) {
+            key ^= BLACK_CASTLED_KEY;
+        }
+        return key;
+    }
+
+    //score in de onderste 32 bits, diepte + 1 daarboven zodat een gevulde entry nooit 0 is, en de grensvlag
+    private static long pack(final int score,
+                             final int depth,
+                             final boolean bound) {
+        return (bound ? BOUND_FLAG : 0L) | ((long) (depth + 1) << 32) | (score & 0xFFFFFFFFL);
+    }
+
+    private static boolean isLazy(final int score,
+                                  final int lazyMargin,
+                                  final int alpha,
+                                  final int beta) {
+        return (long) score + lazyMargin < alpha || (long) score - lazyMargin > beta;
+    }
+
+    private static boolean isBound(final long data) {
+        return (data & BOUND_FLAG) != 0;
+    }
+
+    private static int score(final long data) {
+        return (int) data;
+    }
+
+    private static int depth(final long data) {
+        return (int) ((data & ~BOUND_FLAG) >>> 32) - 1;
+    }
+}
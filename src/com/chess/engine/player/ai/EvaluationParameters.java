@@ -0,0 +1,142 @@
+package com.chess.engine.player.ai;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/*
+ * De gewichten van StandardBoardEvaluator als vector, zodat ze getuned kunnen worden. Materiaal en de matscore horen
+ * er niet bij: die liggen vast in PieceType en in de zoekfunctie. Een bestand heeft per regel "NAAM waarde".
+ */
+public final class EvaluationParameters {
+
+    public enum Term {
+        //per aangevallen veldje dat niet door een eigen stuk bezet is en niet door een vijandelijke pion gedekt wordt
+        KNIGHT_MOBILITY(4),
+        BISHOP_MOBILITY(3),
+        ROOK_MOBILITY(2),
+        QUEEN_MOBILITY(1),
+        CHECK(50),
+        CASTLED(60),
+        CENTER_OCCUPATION(4),
+        //aanvallers van de centrumvelden; wit telt e5 en e4 met het voorkeursgewicht, zwart d5 en d4
+        CENTER_ATTACK(1),
+        CENTER_ATTACK_PREFERRED(2),
+        ISOLATED_PAWN(-25),
+        DOUBLED_PAWN(-25),
+        //een achtergebleven pion kan niet meer door een eigen pion gedekt worden en het veld ervoor wordt aangevallen
+        BACKWARD_PAWN(-10),
+        //gedekt door of naast een eigen pion
+        CONNECTED_PAWN(5),
+        CANDIDATE_PAWN(10),
+        PAWN_ISLAND(-10),
+        PASSED_PAWN(20),
+        //een vrijpion op de helft van de tegenstander krijgt dit er nog bij
+        ADVANCED_PASSED_PAWN(30),
+        OPEN_FILE_ROOK(25),
+        //geen eigen pionnen op de lijn, wel vijandelijke
+        SEMI_OPEN_FILE_ROOK(10),
+        //per toren met een andere eigen toren op dezelfde lijn
+        DOUBLED_ROOK(10),
+        ROOK_ON_SEVENTH(20);
+
+        private final int defaultValue;
+
+        Term(final int defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        public int getDefaultValue() {
+            return this.defaultValue;
+        }
+    }
+
+    public static final int NUM_TERMS = Term.values().length;
+    public static final EvaluationParameters DEFAULT = createDefault();
+
+    private final int[] values;
+
+    private EvaluationParameters(final int[] values) {
+        this.values = values;
+    }
+
+    public static EvaluationParameters of(final int[] values) {
+        if (values.length != NUM_TERMS) {
+            throw new IllegalArgumentException("expected " + NUM_TERMS + " values, got " + values.length);
+        }
+        return new EvaluationParameters(values.clone());
+    }
+
+    public int get(final Term term) {
+        return this.values[term.ordinal()];
+    }
+
+    public EvaluationParameters with(final Term term,
+                                     final int value) {
+        final int[] newValues = this.values.clone();
+        newValues[term.ordinal()] = value;
+        return new EvaluationParameters(newValues);
+    }
+
+    public int[] toArray() {
+        return this.values.clone();
+    }
+
+    //termen die niet in het bestand staan houden hun standaardwaarde
+    public static EvaluationParameters load(final Path file) throws IOException {
+        final int[] values = DEFAULT.toArray();
+        for (final String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            final String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            final String[] parts = trimmed.split("\\s+");
+            try {
+                values[Term.valueOf(parts[0]).ordinal()] = Integer.parseInt(parts[1]);
+            } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("invalid parameter line: " + line);
+            }
+        }
+        return new EvaluationParameters(values);
+    }
+
+    public void write(final Path file) throws IOException {
+        try (final BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (final Term term : Term.values()) {
+                writer.write(term.name() + " " + get(term));
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof EvaluationParameters &&
+                Arrays.equals(this.values, ((EvaluationParameters) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.values);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Term term : Term.values()) {
+            builder.append(term.name()).append(' ').append(get(term)).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static EvaluationParameters createDefault() {
+        final int[] values = new int[NUM_TERMS];
+        for (final Term term : Term.values()) {
+            values[term.ordinal()] = term.getDefaultValue();
+        }
+        return new EvaluationParameters(values);
+    }
+}
@@ -0,0 +1,84 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+import java.util.Collections;
+import java.util.List;
+
+public final class MateResult {
+
+    private final List<Move> matingLine;
+    private final int mateIn;
+    private final int maxMoves;
+    private final boolean budgetExhausted;
+    private final long nodes;
+    private final long timeTaken;
+
+    private MateResult(final List<Move> matingLine,
+                       final int mateIn,
+                       final int maxMoves,
+                       final boolean budgetExhausted,
+                       final long nodes,
+                       final long timeTaken) {
+        this.matingLine = matingLine;
+        this.mateIn = mateIn;
+        this.maxMoves = maxMoves;
+        this.budgetExhausted = budgetExhausted;
+        this.nodes = nodes;
+        this.timeTaken = timeTaken;
+    }
+
+    static MateResult mate(final List<Move> matingLine,
+                           final int mateIn,
+                           final int maxMoves,
+                           final long nodes,
+                           final long timeTaken) {
+        return new MateResult(Collections.unmodifiableList(matingLine), mateIn, maxMoves, false, nodes, timeTaken);
+    }
+
+    static MateResult noMate(final int maxMoves,
+                             final boolean budgetExhausted,
+                             final long nodes,
+                             final long timeTaken) {
+        return new MateResult(Collections.emptyList(), 0, maxMoves, budgetExhausted, nodes, timeTaken);
+    }
+
+    public boolean isMate() {
+        return !this.matingLine.isEmpty();
+    }
+
+    public int getMateIn() {
+        return this.mateIn;
+    }
+
+    public List<Move> getMatingLine() {
+        return this.matingLine;
+    }
+
+    public Move getBestMove() {
+        return isMate() ? this.matingLine.get(0) : Move.MoveFactory.getNullMove();
+    }
+
+    //true als de nodelimiet bereikt is voordat mat bewezen of weerlegd was
+    public boolean isBudgetExhausted() {
+        return this.budgetExhausted;
+    }
+
+    public long getNumNodes() {
+        return this.nodes;
+    }
+
+    public long getTimeTaken() {
+        return this.timeTaken;
+    }
+
+    @Override
+    public String toString() {
+        final String stats = " [nodes = " + this.nodes + ", time taken = " + this.timeTaken + " ms]";
+        if (isMate()) {
+            return "mate in " + this.mateIn + ": " + this.matingLine + stats;
+        }
+        return (this.budgetExhausted ? "no mate found within node budget" :
+                "no mate within " + this.maxMoves) + stats;
+    }
+}
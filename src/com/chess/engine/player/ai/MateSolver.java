@@ -0,0 +1,314 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * Mat-oplosser met depth-first proof-number search (df-pn). Een OR-knoop is een stelling waarin de aanvaller aan zet is,
+ * een AND-knoop een stelling waarin de verdediger aan zet is. Het proof number is het minimum aantal bladeren dat nog
+ * bewezen moet worden om mat aan te tonen, het disproof number het minimum aantal om het te weerleggen.
+ */
+public class MateSolver implements MoveStrategy {
+
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final long DEFAULT_NODE_BUDGET = 1_000_000;
+    private static final int TABLE_BITS = 20;
+    private static final int MAX_MATE_MOVES = 64;
+    private static final long[] MOVES_LEFT_KEYS = createMovesLeftKeys();
+
+    private final int maxMoves;
+    private final long nodeBudget;
+    private final TranspositionTable table;
+    private Alliance attacker;
+    private long nodes;
+
+    public MateSolver(final int maxMoves) {
+        this(maxMoves, DEFAULT_NODE_BUDGET);
+    }
+
+    public MateSolver(final int maxMoves,
+                      final long nodeBudget) {
+        if (maxMoves < 1 || maxMoves >= MAX_MATE_MOVES) {
+            throw new IllegalArgumentException("mate search depth must be between 1 and " + (MAX_MATE_MOVES - 1));
+        }
+        this.maxMoves = maxMoves;
+        this.nodeBudget = nodeBudget;
+        this.table = new TranspositionTable(TABLE_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return "MateSolver";
+    }
+
+    @Override
+    public Move execute(final Board board) {
+        return solve(board).getBestMove();
+    }
+
+    @Override
+    public long getNumBoardsEvaluated() {
+        return this.nodes;
+    }
+
+    //zoekt het kortste geforceerde mat in hoogstens maxMoves zetten van de speler aan zet
+    public MateResult solve(final Board board) {
+        final long startTime = System.currentTimeMillis();
+        this.attacker = board.currentPlayer().getAlliance();
+        this.nodes = 0;
+        this.table.clear();
+        //iteratieve verdieping, zodat het eerste bewezen mat ook het kortste is
+        for (int movesLeft = 1; movesLeft <= this.maxMoves; movesLeft++) {
+            final long result = mid(board, movesLeft, INFINITY, INFINITY);
+            if (proof(result) == 0) {
+                return MateResult.mate(collectMatingLine(board, movesLeft), movesLeft, this.maxMoves,
+                        this.nodes, System.currentTimeMillis() - startTime);
+            }
+            if (isBudgetExhausted()) {
+                return MateResult.noMate(this.maxMoves, true, this.nodes, System.currentTimeMillis() - startTime);
+            }
+        }
+        return MateResult.noMate(this.maxMoves, false, this.nodes, System.currentTimeMillis() - startTime);
+    }
+
+    private long mid(final Board board,
+                     final int movesLeft,
+                     final int proofThreshold,
+                     final int disproofThreshold) {
+        final long key = key(board, movesLeft);
+        final long entry = this.table.probe(key);
+        if (proof(entry) >= proofThreshold || disproof(entry) >= disproofThreshold || isBudgetExhausted()) {
+            return entry;
+        }
+        this.nodes++;
+        final boolean orNode = board.currentPlayer().getAlliance() == this.attacker;
+        if (!orNode && movesLeft == 0) {
+            //de aanvaller heeft geen zetten meer, alleen een mat op het bord telt nog
+            return this.table.store(key, board.currentPlayer().isInCheckMate() ? proven() : disproven());
+        }
+        final List<Child> children = expand(board, movesLeft, orNode);
+        if (children.isEmpty()) {
+            //geen (bruikbare) zetten: mat als de verdediger schaak staat, anders pat of geen mat binnen de grens
+            return this.table.store(key, !orNode && board.currentPlayer().isInCheck() ? proven() : disproven());
+        }
+        final int childMovesLeft = orNode ? movesLeft - 1 : movesLeft;
+        long result;
+        while (true) {
+            result = orNode ? orValue(children) : andValue(children);
+            if (proof(result) >= proofThreshold || disproof(result) >= disproofThreshold || isBudgetExhausted()) {
+                break;
+            }
+            int best = 0;
+            int secondBest = INFINITY;
+            for (int i = 1; i < children.size(); i++) {
+                final int value = orNode ? children.get(i).proof : children.get(i).disproof;
+                final int bestValue = orNode ? children.get(best).proof : children.get(best).disproof;
+                if (value < bestValue) {
+                    secondBest = bestValue;
+                    best = i;
+                } else if (value < secondBest) {
+                    secondBest = value;
+                }
+            }
+            final Child child = children.get(best);
+            final int childProofThreshold;
+            final int childDisproofThreshold;
+            if (orNode) {
+                childProofThreshold = Math.min(proofThreshold, add(secondBest, 1));
+                childDisproofThreshold = add(disproofThreshold - disproof(result), child.disproof);
+            } else {
+                childProofThreshold = add(proofThreshold - proof(result), child.proof);
+                childDisproofThreshold = Math.min(disproofThreshold, add(secondBest, 1));
+            }
+            final long childResult = mid(child.board, childMovesLeft, childProofThreshold, childDisproofThreshold);
+            child.proof = proof(childResult);
+            child.disproof = disproof(childResult);
+        }
+        return this.table.store(key, result);
+    }
+
+    private List<Child> expand(final Board board,
+                               final int movesLeft,
+                               final boolean orNode) {
+        final List<Child> checks = new ArrayList<>();
+        final List<Child> others = new ArrayList<>();
+        final int childMovesLeft = orNode ? movesLeft - 1 : movesLeft;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final boolean givesCheck = BoardUtils.givesCheck(move);
+            //met de laatste zet moet de aanvaller mat zetten, dus alleen schaakzetten komen in aanmerking
+            if (orNode && movesLeft == 1 && !givesCheck) {
+                continue;
+            }
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                final Child child = new Child(move, transition.getToBoard(),
+                        this.table.probe(key(transition.getToBoard(), childMovesLeft)));
+                (givesCheck || move.isAttack() ? checks : others).add(child);
+            }
+        }
+        checks.addAll(others);
+        return checks;
+    }
+
+    private List<Move> collectMatingLine(final Board board,
+                                         final int mateIn) {
+        final List<Move> matingLine = new ArrayList<>();
+        Board current = board;
+        int movesLeft = mateIn;
+        while (current.currentPlayer().getAlliance() == this.attacker || !current.currentPlayer().isInCheckMate()) {
+            final boolean orNode = current.currentPlayer().getAlliance() == this.attacker;
+            final List<Child> children = expand(current, movesLeft, orNode);
+            Child next = null;
+            if (orNode) {
+                //de eerste aanvalszet die mat in de resterende zetten forceert
+                movesLeft--;
+                for (final Child child : children) {
+                    if (proof(mid(child.board, movesLeft, INFINITY, INFINITY)) == 0) {
+                        next = child;
+                        break;
+                    }
+                }
+            } else {
+                //de verdediging die het mat het langst uitstelt: bewezen, maar niet met een zet minder
+                for (; next == null && movesLeft > 0; movesLeft--) {
+                    for (final Child child : children) {
+                        if (movesLeft == 1 || proof(mid(child.board, movesLeft - 1, INFINITY, INFINITY)) != 0) {
+                            next = child;
+                            break;
+                        }
+                    }
+                }
+                movesLeft++;
+            }
+            if (next == null) {
+                //kan alleen gebeuren als de tabel bewezen stellingen kwijt is en het budget op is
+                return matingLine;
+            }
+            matingLine.add(next.move);
+            current = next.board;
+        }
+        return matingLine;
+    }
+
+    private boolean isBudgetExhausted() {
+        return this.nodes >= this.nodeBudget;
+    }
+
+    private static long key(final Board board,
+                            final int movesLeft) {
+        return board.getZobristKey() ^ MOVES_LEFT_KEYS[movesLeft];
+    }
+
+    private static long orValue(final List<Child> children) {
+        int proof = INFINITY;
+        int disproof = 0;
+        for (final Child child : children) {
+            proof = Math.min(proof, child.proof);
+            disproof = add(disproof, child.disproof);
+        }
+        return pack(proof, disproof);
+    }
+
+    private static long andValue(final List<Child> children) {
+        int proof = 0;
+        int disproof = INFINITY;
+        for (final Child child : children) {
+            proof = add(proof, child.proof);
+            disproof = Math.min(disproof, child.disproof);
+        }
+        return pack(proof, disproof);
+    }
+
+    private static int add(final int a,
+                           final int b) {
+        return (int) Math.min((long) a + b, INFINITY);
+    }
+
+    private static long pack(final int proof,
+                             final int disproof) {
+        return ((long) proof << 32) | disproof;
+    }
+
+    private static int proof(final long value) {
+        return (int) (value >>> 32);
+    }
+
+    private static int disproof(final long value) {
+        return (int) value;
+    }
+
+    private static long proven() {
+        return pack(0, INFINITY);
+    }
+
+    private static long disproven() {
+        return pack(INFINITY, 0);
+    }
+
+    private static long[] createMovesLeftKeys() {
+        final Random random = new Random(MAX_MATE_MOVES);
+        final long[] keys = new long[MAX_MATE_MOVES];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+
+    private static final class Child {
+
+        private final Move move;
+        private final Board board;
+        private int proof;
+        private int disproof;
+
+        private Child(final Move move,
+                      final Board board,
+                      final long value) {
+            this.move = move;
+            this.board = board;
+            this.proof = proof(value);
+            this.disproof = disproof(value);
+        }
+    }
+
+    //altijd-vervangen tabel; een lege plek heeft waarde 0, wat geen geldige (pn, dn) combinatie is
+    private static final class TranspositionTable {
+
+        private static final long UNKNOWN = pack(1, 1);
+
+        private final long[] keys;
+        private final long[] values;
+        private final int mask;
+
+        private TranspositionTable(final int bits) {
+            this.keys = new long[1 << bits];
+            this.values = new long[1 << bits];
+            this.mask = (1 << bits) - 1;
+        }
+
+        private long probe(final long key) {
+            final int index = (int) key & this.mask;
+            return this.keys[index] == key && this.values[index] != 0 ? this.values[index] : UNKNOWN;
+        }
+
+        private long store(final long key,
+                           final long value) {
+            final int index = (int) key & this.mask;
+            this.keys[index] = key;
+            this.values[index] = value;
+            return value;
+        }
+
+        private void clear() {
+            Arrays.fill(this.values, 0L);
+        }
+    }
+}
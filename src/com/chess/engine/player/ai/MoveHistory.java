@@ -0,0 +1,81 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+
+final class MoveHistory {
+
+    private static final int MAX_PLY = 64;
+    private static final int KILLER_SLOTS = 2;
+    private static final int NO_KILLER = -1;
+    private static final int MAX_HISTORY = 1 << 20;
+
+    private final int[][] killers;
+    private final int[][][] history;
+
+    MoveHistory() {
+        this.killers = new int[MAX_PLY][KILLER_SLOTS];
+        this.history = new int[2][BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+        clearKillers();
+    }
+
+    boolean isKiller(final Move move,
+                     final int ply) {
+        if (ply >= MAX_PLY) {
+            return false;
+        }
+        final int key = moveKey(move);
+        for (final int killer : this.killers[ply]) {
+            if (killer == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int historyScore(final Move move) {
+        return this.history[move.getMovedPiece().getPieceAlliance().ordinal()]
+                [move.getCurrentCoordinate()][move.getDestinationCoordinate()];
+    }
+
+    void recordCutoff(final Move move,
+                      final int ply,
+                      final int depth) {
+        if (ply < MAX_PLY) {
+            final int key = moveKey(move);
+            final int[] plyKillers = this.killers[ply];
+            if (plyKillers[0] != key) {
+                System.arraycopy(plyKillers, 0, plyKillers, 1, KILLER_SLOTS - 1);
+                plyKillers[0] = key;
+            }
+        }
+        final int[] fromHistory = this.history[move.getMovedPiece().getPieceAlliance().ordinal()][move.getCurrentCoordinate()];
+        fromHistory[move.getDestinationCoordinate()] += depth * depth;
+        if (fromHistory[move.getDestinationCoordinate()] > MAX_HISTORY) {
+            age();
+        }
+    }
+
+    //tussen twee zoekopdrachten wordt de oude kennis minder belangrijk, maar niet weggegooid
+    void age() {
+        for (final int[][] allianceHistory : this.history) {
+            for (final int[] fromHistory : allianceHistory) {
+                for (int i = 0; i < fromHistory.length; i++) {
+                    fromHistory[i] >>= 1;
+                }
+            }
+        }
+    }
+
+    void clearKillers() {
+        for (final int[] plyKillers : this.killers) {
+            for (int i = 0; i < plyKillers.length; i++) {
+                plyKillers[i] = NO_KILLER;
+            }
+        }
+    }
+
+    private static int moveKey(final Move move) {
+        return move.getCurrentCoordinate() * BoardUtils.NUM_TILES + move.getDestinationCoordinate();
+    }
+}
@@ -1,21 +1,45 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.board.Board;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
-import com.google.common.collect.ImmutableList;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
+/*
+ * Pionnenstructuur met bitboards: lijnen en de velden voor de pionnen worden met een paar verschuivingen gevuld, zodat
+ * elke term een masker over de twee pionnenbitboards is. Alleen kandidaat-vrijpionnen worden per pion geteld, en dan
+ * alleen de pionnen op een halfopen lijn die nog geen vrijpion zijn.
+ */
 public final class PawnStructureAnalyzer {
 
     private static final PawnStructureAnalyzer INSTANCE = new PawnStructureAnalyzer();
 
-    public static final int ISOLATED_PAWN_PENALTY = -25;
-    public static final int DOUBLED_PAWN_PENALTY = -25;
+    public static final int ISOLATED_PAWN_PENALTY = Term.ISOLATED_PAWN.getDefaultValue();
+    public static final int DOUBLED_PAWN_PENALTY = Term.DOUBLED_PAWN.getDefaultValue();
+
+    //de termen in de volgorde van hun velden in een entry
+    static final Term[] PAWN_TERMS = {Term.ISOLATED_PAWN, Term.DOUBLED_PAWN, Term.BACKWARD_PAWN, Term.CONNECTED_PAWN,
+            Term.CANDIDATE_PAWN, Term.PAWN_ISLAND, Term.PASSED_PAWN, Term.ADVANCED_PASSED_PAWN};
+
+    //de pionnenstructuur verandert zelden tussen knopen, dus bijna elke opvraging is een hit
+    private static final int PAWN_HASH_ENTRIES = 1 << 14;
+    private static final int FIELD_BITS = 4;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    //rij 8 tot en met 5, voor zwart de andere helft
+    private static final long WHITE_ADVANCED_RANKS = 0xFFFFFFFFL;
+
+    private final long[] pawnHash;
+    private final LongAdder probes;
+    private final LongAdder hits;
 
     private PawnStructureAnalyzer() {
+        this.pawnHash = new long[2 * PAWN_HASH_ENTRIES];
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
     }
 
     public static PawnStructureAnalyzer get() {
@@ -23,60 +47,143 @@ public final class PawnStructureAnalyzer {
     }
 
     public int isolatedPawnPenalty(final Player player) {
-        return calculateIsolatedPawnPenalty(createPawnColumnTable(calculatePlayerPawns(player)));
+        return Long.bitCount(isolatedPawns(playerPawns(player))) * ISOLATED_PAWN_PENALTY;
     }
 
     public int doubledPawnPenalty(final Player player) {
-        return calculatePawnColumnStack(createPawnColumnTable(calculatePlayerPawns(player)));
-    }
-
-    int pawnStructureScore(final Player player) {
-        final int[] pawnsOnColumnTable = createPawnColumnTable(calculatePlayerPawns(player));
-        return calculatePawnColumnStack(pawnsOnColumnTable) + calculateIsolatedPawnPenalty(pawnsOnColumnTable);
+        return Long.bitCount(doubledPawns(playerPawns(player))) * DOUBLED_PAWN_PENALTY;
     }
 
-    private static Collection<Piece> calculatePlayerPawns(final Player player) {
-        final List<Piece> playerPawnLocations = new ArrayList<>(8);
-        for (final Piece piece : player.getActivePieces()) {
-            if (piece.getPieceType().isPawn()) {
-                playerPawnLocations.add(piece);
+    //het aantal pionnen (of eilanden) van een kant voor een van de PAWN_TERMS
+    public int pawnTermCount(final Board board,
+                             final Alliance alliance,
+                             final Term term) {
+        for (int field = 0; field < PAWN_TERMS.length; field++) {
+            if (PAWN_TERMS[field] == term) {
+                return count(pawnStructure(board), alliance, field);
             }
         }
-        return ImmutableList.copyOf(playerPawnLocations);
+        throw new IllegalArgumentException(term + " is not a pawn structure term");
     }
 
-    private static int calculatePawnColumnStack(final int[] pawnsOnColumnTable) {
-        int pawnStackPenalty = 0;
-        for (final int pawnStack : pawnsOnColumnTable) {
-            if (pawnStack > 1) {
-                pawnStackPenalty += pawnStack;
-            }
-        }
-        return pawnStackPenalty * DOUBLED_PAWN_PENALTY;
+    //de tellingen van beide kanten, uit te pakken met count
+    long pawnStructure(final Board board) {
+        return probePawnHash(board);
+    }
+
+    //field is de index in PAWN_TERMS
+    static int count(final long pawnStructure,
+                     final Alliance alliance,
+                     final int field) {
+        return (int) (pawnStructure >>> ((alliance.isWhite() ? 32 : 0) + FIELD_BITS * field)) & FIELD_MASK;
+    }
+
+    public long getPawnHashProbes() {
+        return this.probes.sum();
+    }
+
+    public long getPawnHashHits() {
+        return this.hits.sum();
     }
 
-    private static int calculateIsolatedPawnPenalty(final int[] pawnsOnColumnTable) {
-        int numIsolatedPawns = 0;
-        if (pawnsOnColumnTable[0] > 0 && pawnsOnColumnTable[1] == 0) {
-            numIsolatedPawns += pawnsOnColumnTable[0];
+    /*
+     * Een entry is de pionnensleutel ge-xord met de data en de data zelf: per kant 32 bits, wit in de hoogste helft,
+     * met een telling van 4 bits voor elke term uit PAWN_TERMS. De tellingen en niet de scores staan erin, zodat de
+     * gewichten kunnen veranderen. Een lege entry past alleen bij sleutel 0, een bord zonder pionnen, en dan zijn alle
+     * tellingen 0.
+     */
+    private long probePawnHash(final Board board) {
+        final long key = board.getPawnKey();
+        final int slot = 2 * ((int) (key ^ (key >>> 32)) & (PAWN_HASH_ENTRIES - 1));
+        this.probes.increment();
+        final long data = this.pawnHash[slot + 1];
+        if ((this.pawnHash[slot] ^ data) == key) {
+            this.hits.increment();
+            return data;
         }
-        if (pawnsOnColumnTable[7] > 0 && pawnsOnColumnTable[6] == 0) {
-            numIsolatedPawns += pawnsOnColumnTable[7];
+        final long whitePawns = board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.PAWN);
+        final long blackPawns = board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.PAWN);
+        final long newData = (sideCounts(Alliance.WHITE, whitePawns, blackPawns) << 32) |
+                sideCounts(Alliance.BLACK, blackPawns, whitePawns);
+        this.pawnHash[slot] = key ^ newData;
+        this.pawnHash[slot + 1] = newData;
+        return newData;
+    }
+
+    private static long sideCounts(final Alliance alliance,
+                                   final long pawns,
+                                   final long enemyPawns) {
+        final boolean white = alliance.isWhite();
+        final long isolated = isolatedPawns(pawns);
+        final long enemyFrontSpans = frontSpans(white ? Alliance.BLACK : Alliance.WHITE, enemyPawns);
+        final long passed = pawns & ~(enemyFrontSpans | adjacentFiles(enemyFrontSpans));
+        //een eigen pion op een buurlijn naast of achter de pion kan het veld ervoor nog dekken
+        final long supportable = adjacentFiles(white ? BitBoardUtils.northFill(pawns) : BitBoardUtils.southFill(pawns));
+        final long enemyAttacks = BitBoardUtils.allPawnAttacks(white ? Alliance.BLACK : Alliance.WHITE, enemyPawns);
+        final long stopAttacked = white ? enemyAttacks << 8 : enemyAttacks >>> 8;
+        final long backward = pawns & ~supportable & stopAttacked & ~isolated;
+        final long connected = pawns & (BitBoardUtils.allPawnAttacks(alliance, pawns) | adjacentFiles(pawns));
+        final int files = (int) (BitBoardUtils.fileFill(pawns) & 0xFF);
+        final int islands = Integer.bitCount(files & ~(files << 1));
+        final int[] counts = new int[PAWN_TERMS.length];
+        counts[0] = Long.bitCount(isolated);
+        counts[1] = Long.bitCount(doubledPawns(pawns));
+        counts[2] = Long.bitCount(backward);
+        counts[3] = Long.bitCount(connected);
+        counts[4] = countCandidates(white, pawns & ~passed & ~enemyFrontSpans, pawns, enemyPawns);
+        counts[5] = islands;
+        counts[6] = Long.bitCount(passed);
+        counts[7] = Long.bitCount(passed & (white ? WHITE_ADVANCED_RANKS : ~WHITE_ADVANCED_RANKS));
+        long sideCounts = 0;
+        for (int field = 0; field < counts.length; field++) {
+            sideCounts |= (long) Math.min(counts[field], FIELD_MASK) << (FIELD_BITS * field);
         }
-        for (int i = 1; i < pawnsOnColumnTable.length - 1; i++) {
-            if ((pawnsOnColumnTable[i - 1] == 0 && pawnsOnColumnTable[i + 1] == 0)) {
-                numIsolatedPawns += pawnsOnColumnTable[i];
+        return sideCounts;
+    }
+
+    //een pion op een halfopen lijn met minstens zoveel eigen helpers op de buurlijnen als vijandelijke pionnen ervoor
+    private static int countCandidates(final boolean white,
+                                       final long halfOpen,
+                                       final long pawns,
+                                       final long enemyPawns) {
+        int candidates = 0;
+        for (long remaining = halfOpen; remaining != 0; remaining &= remaining - 1) {
+            final long neighbours = adjacentFiles(Long.lowestOneBit(remaining));
+            final long behind = white ? BitBoardUtils.southFill(neighbours) : BitBoardUtils.northFill(neighbours);
+            final long ahead = white ? BitBoardUtils.northFill(neighbours >>> 8) : BitBoardUtils.southFill(neighbours << 8);
+            if (Long.bitCount(behind & pawns) >= Long.bitCount(ahead & enemyPawns)) {
+                candidates++;
             }
         }
-        return numIsolatedPawns * ISOLATED_PAWN_PENALTY;
+        return candidates;
     }
 
-    private static int[] createPawnColumnTable(final Collection<Piece> playerPawns) {
-        final int[] table = new int[8];
-        for (final Piece playerPawn : playerPawns) {
-            table[playerPawn.getPiecePosition() % 8]++;
-        }
-        return table;
+    private static long isolatedPawns(final long pawns) {
+        return pawns & ~adjacentFiles(BitBoardUtils.fileFill(pawns));
+    }
+
+    //alle pionnen op een lijn met meer dan een eigen pion
+    private static long doubledPawns(final long pawns) {
+        return pawns & (BitBoardUtils.northFill(pawns >>> 8) | BitBoardUtils.southFill(pawns << 8));
+    }
+
+    //de velden voor de pionnen op hun eigen lijn; wit loopt naar lagere bits
+    private static long frontSpans(final Alliance alliance,
+                                   final long pawns) {
+        return alliance.isWhite() ? BitBoardUtils.northFill(pawns >>> 8) : BitBoardUtils.southFill(pawns << 8);
     }
 
+    private static long adjacentFiles(final long squares) {
+        return ((squares & ~BitBoardUtils.FILE_H) << 1) | ((squares & ~BitBoardUtils.FILE_A) >>> 1);
+    }
+
+    private static long playerPawns(final Player player) {
+        long pawns = BitBoardUtils.EMPTY;
+        for (final Piece piece : player.getActivePieces()) {
+            if (piece.getPieceType().isPawn()) {
+                pawns |= BitBoardUtils.squareMask(piece.getPiecePosition());
+            }
+        }
+        return pawns;
+    }
 }
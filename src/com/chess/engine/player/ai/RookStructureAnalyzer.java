@@ -1,21 +1,31 @@
 package com.chess.engine.player.ai;
 
-import java.util.ArrayList;
-import java.util.List;
-
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableList.Builder;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
 
+/*
+ * Torentermen uit de lijnmaskers van de pionnen: een lijn zonder pionnen is open, een lijn met alleen vijandelijke
+ * pionnen halfopen. De maskers worden per evaluatie een keer gevuld; dubbele torens en torens op de zevende rij
+ * volgen uit dezelfde bitboards.
+ */
 public final class RookStructureAnalyzer {
 
     private static final RookStructureAnalyzer INSTANCE = new RookStructureAnalyzer();
-    private final List<List<Boolean>> BOARD_COLUMNS = initColumns();
-    private static final int OPEN_COLUMN_ROOK_BONUS = 25;
-    private static final int NO_BONUS = 0;
+
+    //de termen in de volgorde van hun velden in rookStructure
+    static final Term[] ROOK_TERMS = {Term.OPEN_FILE_ROOK, Term.SEMI_OPEN_FILE_ROOK, Term.DOUBLED_ROOK, Term.ROOK_ON_SEVENTH};
+
+    private static final int FIELD_BITS = 4;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    //veld 0 is a8, dus de zevende rij van wit is de tweede rij bits
+    private static final long WHITE_SEVENTH_RANK = 0xFFL << 8;
+    private static final long WHITE_EIGHTH_RANK = 0xFFL;
+    private static final long BLACK_SEVENTH_RANK = 0xFFL << 48;
+    private static final long BLACK_EIGHTH_RANK = 0xFFL << 56;
 
     private RookStructureAnalyzer() {
     }
@@ -24,62 +34,54 @@ public final class RookStructureAnalyzer {
         return INSTANCE;
     }
 
-    private List<List<Boolean>> initColumns() {
-        final List<List<Boolean>> columns = new ArrayList<>();
-        columns.add(BoardUtils.INSTANCE.FIRST_COLUMN);
-        columns.add(BoardUtils.INSTANCE.SECOND_COLUMN);
-        columns.add(BoardUtils.INSTANCE.THIRD_COLUMN);
-        columns.add(BoardUtils.INSTANCE.FOURTH_COLUMN);
-        columns.add(BoardUtils.INSTANCE.FIFTH_COLUMN);
-        columns.add(BoardUtils.INSTANCE.SIXTH_COLUMN);
-        columns.add(BoardUtils.INSTANCE.SEVENTH_COLUMN);
-        columns.add(BoardUtils.INSTANCE.EIGHTH_COLUMN);
-        return ImmutableList.copyOf(columns);
-    }
-
+    //de torenscore van een speler met de standaardgewichten
     public int rookStructureScore(final Board board,
                                   final Player player) {
-        final List<Integer> rookLocations = calculateRookLocations(player);
-        return calculateOpenFileRookBonus(board, rookLocations);
-    }
-
-    private static List<Integer> calculateRookLocations(final Player player) {
-        final Builder<Integer> playerRookLocations = new Builder<>();
-        for (final Piece piece : player.getActivePieces()) {
-            if (piece.getPieceType().isRook()) {
-                playerRookLocations.add(piece.getPiecePosition());
-            }
+        final long rookStructure = rookStructure(board);
+        int score = 0;
+        for (int field = 0; field < ROOK_TERMS.length; field++) {
+            score += ROOK_TERMS[field].getDefaultValue() * count(rookStructure, player.getAlliance(), field);
         }
-        return playerRookLocations.build();
+        return score;
     }
 
-    private int calculateOpenFileRookBonus(final Board board,
-                                           final List<Integer> rookLocations) {
-        int bonus = NO_BONUS;
-        for (final Integer rookLocation : rookLocations) {
-            final int[] piecesOnColumn = createPiecesOnColumnTable(board);
-            final int rookColumn = rookLocation / 8;
-            for (int i = 0; i < piecesOnColumn.length; i++) {
-                if (piecesOnColumn[i] == 1 && i == rookColumn) {
-                    bonus += OPEN_COLUMN_ROOK_BONUS;
-                }
+    //de tellingen van beide kanten, 16 bits per kant en 4 per term, uit te pakken met count
+    static long rookStructure(final Board board) {
+        final long whitePawnFiles = BitBoardUtils.fileFill(board.getPieceBitBoard(Alliance.WHITE, Piece.PieceType.PAWN));
+        final long blackPawnFiles = BitBoardUtils.fileFill(board.getPieceBitBoard(Alliance.BLACK, Piece.PieceType.PAWN));
+        return (sideCounts(board, Alliance.WHITE, whitePawnFiles, blackPawnFiles) << 16) |
+                sideCounts(board, Alliance.BLACK, blackPawnFiles, whitePawnFiles);
+    }
 
-            }
-        }
-        return bonus;
+    //field is de index in ROOK_TERMS
+    static int count(final long rookStructure,
+                     final Alliance alliance,
+                     final int field) {
+        return (int) (rookStructure >>> ((alliance.isWhite() ? 16 : 0) + FIELD_BITS * field)) & FIELD_MASK;
     }
 
-    private int[] createPiecesOnColumnTable(final Board board) {
-        final int[] piecesOnColumnTable = new int[BOARD_COLUMNS.size()];
-        for (final Piece piece : board.getAllPieces()) {
-            for (int i = 0; i < BOARD_COLUMNS.size(); i++) {
-                if (BOARD_COLUMNS.get(i).get(piece.getPiecePosition())) {
-                    piecesOnColumnTable[i]++;
-                }
-            }
+    private static long sideCounts(final Board board,
+                                   final Alliance alliance,
+                                   final long ownPawnFiles,
+                                   final long enemyPawnFiles) {
+        final long rooks = board.getPieceBitBoard(alliance, Piece.PieceType.ROOK);
+        if (rooks == BitBoardUtils.EMPTY) {
+            return 0;
         }
-        return piecesOnColumnTable;
+        final Alliance opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        final long seventhRank = alliance.isWhite() ? WHITE_SEVENTH_RANK : BLACK_SEVENTH_RANK;
+        final long eighthRank = alliance.isWhite() ? WHITE_EIGHTH_RANK : BLACK_EIGHTH_RANK;
+        final long openFiles = ~(ownPawnFiles | enemyPawnFiles);
+        final long semiOpenFiles = ~ownPawnFiles & enemyPawnFiles;
+        //alle torens met een andere eigen toren op dezelfde lijn
+        final long doubled = rooks & (BitBoardUtils.northFill(rooks >>> 8) | BitBoardUtils.southFill(rooks << 8));
+        //de zevende rij telt alleen als daar pionnen te halen zijn of de koning op de achterste rij vastzit
+        final boolean seventhMatters = (board.getPieceBitBoard(opponent, Piece.PieceType.PAWN) & seventhRank) != 0 ||
+                (board.getPieceBitBoard(opponent, Piece.PieceType.KING) & eighthRank) != 0;
+        //er zijn hooguit tien torens per kant, dus elke telling past in een veld
+        return Long.bitCount(rooks & openFiles) |
+                (long) Long.bitCount(rooks & semiOpenFiles) << FIELD_BITS |
+                (long) Long.bitCount(doubled) << (2 * FIELD_BITS) |
+                (long) (seventhMatters ? Long.bitCount(rooks & seventhRank) : 0) << (3 * FIELD_BITS);
     }
-
-
 }
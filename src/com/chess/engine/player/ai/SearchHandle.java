@@ -0,0 +1,38 @@
+package com.chess.engine.player.ai;
+
+import java.util.concurrent.CompletableFuture;
+
+public final class SearchHandle {
+
+    private final StockAlphaBeta strategy;
+    private final CompletableFuture<SearchResult> result;
+
+    SearchHandle(final StockAlphaBeta strategy,
+                 final CompletableFuture<SearchResult> result) {
+        this.strategy = strategy;
+        this.result = result;
+        //een geannuleerde future mag de zoekthread niet laten doorrekenen
+        this.result.whenComplete((searchResult, throwable) -> {
+            if (this.result.isCancelled()) {
+                this.strategy.stop();
+            }
+        });
+    }
+
+    //vraagt de zoekopdracht te stoppen, de future wordt dan voltooid met de beste zet tot nu toe
+    public void stop() {
+        this.strategy.stop();
+    }
+
+    public boolean isDone() {
+        return this.result.isDone();
+    }
+
+    public CompletableFuture<SearchResult> getResult() {
+        return this.result;
+    }
+
+    public StockAlphaBeta getStrategy() {
+        return this.strategy;
+    }
+}
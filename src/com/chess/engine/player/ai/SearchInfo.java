@@ -0,0 +1,116 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+import java.util.List;
+
+public final class SearchInfo {
+
+    private final int depth;
+    private final int selectiveDepth;
+    private final int score;
+    private final long nodes;
+    private final long time;
+    private final int hashFull;
+    private final List<Move> principalVariation;
+    private final Move currentMove;
+    private final int currentMoveNumber;
+    private final int numMoves;
+    private final int multiPv;
+
+    SearchInfo(final int depth,
+               final int selectiveDepth,
+               final int score,
+               final long nodes,
+               final long time,
+               final int hashFull,
+               final List<Move> principalVariation,
+               final Move currentMove,
+               final int currentMoveNumber,
+               final int numMoves,
+               final int multiPv) {
+        this.depth = depth;
+        this.selectiveDepth = selectiveDepth;
+        this.score = score;
+        this.nodes = nodes;
+        this.time = time;
+        this.hashFull = hashFull;
+        this.principalVariation = principalVariation;
+        this.currentMove = currentMove;
+        this.currentMoveNumber = currentMoveNumber;
+        this.numMoves = numMoves;
+        this.multiPv = multiPv;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    //de diepste ply die de zoekopdracht (met extensies) bereikt heeft
+    public int getSelectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    //score vanuit het perspectief van wit
+    public int getScore() {
+        return this.score;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    public long getNodesPerSecond() {
+        return this.time > 0 ? 1000 * this.nodes / this.time : this.nodes;
+    }
+
+    public long getTime() {
+        return this.time;
+    }
+
+    //vulgraad van de hashtabellen in promille
+    public int getHashFull() {
+        return this.hashFull;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    public Move getCurrentMove() {
+        return this.currentMove;
+    }
+
+    public int getCurrentMoveNumber() {
+        return this.currentMoveNumber;
+    }
+
+    public int getNumMoves() {
+        return this.numMoves;
+    }
+
+    //1 voor de beste variant, 2 voor de tweede enzovoort in Multi-PV analyse
+    public int getMultiPv() {
+        return this.multiPv;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+                .append(" seldepth ").append(this.selectiveDepth)
+                .append(" multipv ").append(this.multiPv)
+                .append(" score ").append(this.score)
+                .append(" nodes ").append(this.nodes)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(" hashfull ").append(this.hashFull)
+                .append(" time ").append(this.time)
+                .append(" currmove ").append(this.currentMove)
+                .append(" currmovenumber ").append(this.currentMoveNumber).append('/').append(this.numMoves)
+                .append(" pv");
+        for (final Move move : this.principalVariation) {
+            builder.append(' ').append(move);
+        }
+        return builder.toString();
+    }
+}
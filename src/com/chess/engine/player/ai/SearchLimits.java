@@ -0,0 +1,71 @@
+package com.chess.engine.player.ai;
+
+public final class SearchLimits {
+
+    public static final SearchLimits NONE = new Builder().build();
+
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long nodeLimit;
+    private final long timeLimit;
+
+    private SearchLimits(final Builder builder) {
+        this.nodeLimit = builder.nodeLimit;
+        this.timeLimit = builder.timeLimit;
+    }
+
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    public long getTimeLimit() {
+        return this.timeLimit;
+    }
+
+    public boolean hasNodeLimit() {
+        return this.nodeLimit != UNLIMITED;
+    }
+
+    public boolean hasTimeLimit() {
+        return this.timeLimit != UNLIMITED;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes: " + (hasNodeLimit() ? this.nodeLimit : "-") +
+                ", time: " + (hasTimeLimit() ? this.timeLimit + " ms" : "-");
+    }
+
+    public static class Builder {
+
+        long nodeLimit;
+        long timeLimit;
+
+        public Builder() {
+            this.nodeLimit = UNLIMITED;
+            this.timeLimit = UNLIMITED;
+        }
+
+        //het maximum aantal geevalueerde borden
+        public Builder setNodeLimit(final long nodeLimit) {
+            if (nodeLimit <= 0) {
+                throw new IllegalArgumentException("node limit must be positive: " + nodeLimit);
+            }
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        //de maximale zoektijd in milliseconden
+        public Builder setTimeLimit(final long timeLimit) {
+            if (timeLimit <= 0) {
+                throw new IllegalArgumentException("time limit must be positive: " + timeLimit);
+            }
+            this.timeLimit = timeLimit;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.chess.engine.player.ai;
+
+public interface SearchListener {
+
+    //wordt gedurende de zoekopdracht aangeroepen, hoogstens een keer per info-interval van de strategie
+    void searchInfo(SearchInfo searchInfo);
+
+    void searchFinished(SearchResult searchResult);
+}
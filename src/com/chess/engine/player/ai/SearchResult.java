@@ -0,0 +1,62 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.Move;
+
+import java.util.List;
+
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final List<Move> principalVariation;
+    private final long boardsEvaluated;
+    private final long timeTaken;
+    private final boolean stopped;
+
+    SearchResult(final Move bestMove,
+                 final int score,
+                 final List<Move> principalVariation,
+                 final long boardsEvaluated,
+                 final long timeTaken,
+                 final boolean stopped) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.boardsEvaluated = boardsEvaluated;
+        this.timeTaken = timeTaken;
+        this.stopped = stopped;
+    }
+
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    //score vanuit het perspectief van wit, zoals de evaluator hem geeft
+    public int getScore() {
+        return this.score;
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    public long getNumBoardsEvaluated() {
+        return this.boardsEvaluated;
+    }
+
+    public long getTimeTaken() {
+        return this.timeTaken;
+    }
+
+    //true als de zoekopdracht door stop() of een limiet is afgebroken
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    @Override
+    public String toString() {
+        return this.bestMove + " [score: " + this.score + ", pv: " + this.principalVariation +
+                ", #boards evaluated = " + this.boardsEvaluated + ", time taken = " + this.timeTaken + " ms" +
+                (this.stopped ? ", stopped" : "") + "]";
+    }
+}
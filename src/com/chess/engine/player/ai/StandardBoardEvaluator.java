@@ -1,122 +1,123 @@
 package com.chess.engine.player.ai;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.Board;
-import com.chess.engine.board.BoardUtils;
-import com.chess.engine.board.Move;
-import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.Player;
-
-import java.util.Collection;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
 
 public final class StandardBoardEvaluator implements BoardEvaluator {
-    private static final int CHECK_BONUS = 50;
     private static final int CHECK_MATE_BONUS = 10000;
     private static final int DEPTH_BONUS = 80;
-    private static final int CASTLE_BONUS = 60;
-    private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator();
-
-    private StandardBoardEvaluator() {
+    //bovengrenzen voor de termen die lazy evaluatie overslaat: bereikbare velden per stuksoort (twee stukken, een
+    //dame), centrumvelden en aanvallers van het centrum per gewicht
+    private static final int MAX_KNIGHT_MOBILITY = 16;
+    private static final int MAX_BISHOP_MOBILITY = 26;
+    private static final int MAX_ROOK_MOBILITY = 28;
+    private static final int MAX_QUEEN_MOBILITY = 27;
+    private static final int MAX_CENTER_ATTACKS = 32;
+    private static final StandardBoardEvaluator INSTANCE = new StandardBoardEvaluator(EvaluationParameters.DEFAULT);
+
+    //een context per zoekthread, zodat een evaluatie geen objecten aanmaakt
+    private static final ThreadLocal<EvalContext> CONTEXT = ThreadLocal.withInitial(EvalContext::new);
+    private static final ThreadLocal<int[]> COEFFICIENTS = ThreadLocal.withInitial(() -> new int[EvaluationParameters.NUM_TERMS]);
+
+    private final EvaluationParameters parameters;
+    private final int[] weights;
+    private final int lazyMargin;
+
+    private StandardBoardEvaluator(final EvaluationParameters parameters) {
+        this.parameters = parameters;
+        this.weights = parameters.toArray();
+        this.lazyMargin = MAX_KNIGHT_MOBILITY * Math.abs(parameters.get(Term.KNIGHT_MOBILITY)) +
+                MAX_BISHOP_MOBILITY * Math.abs(parameters.get(Term.BISHOP_MOBILITY)) +
+                MAX_ROOK_MOBILITY * Math.abs(parameters.get(Term.ROOK_MOBILITY)) +
+                MAX_QUEEN_MOBILITY * Math.abs(parameters.get(Term.QUEEN_MOBILITY)) +
+                4 * Math.abs(parameters.get(Term.CENTER_OCCUPATION)) +
+                MAX_CENTER_ATTACKS * (Math.abs(parameters.get(Term.CENTER_ATTACK)) + Math.abs(parameters.get(Term.CENTER_ATTACK_PREFERRED)));
     }
 
     public static StandardBoardEvaluator get() {
         return INSTANCE;
     }
 
-    @Override
-    public int evaluate(final Board board, final int depth) {
-        return scorePlayer(board, board.whitePlayer(), depth) -
-                scorePlayer(board, board.blackPlayer(), depth);
+    public static StandardBoardEvaluator withParameters(final EvaluationParameters parameters) {
+        return parameters.equals(EvaluationParameters.DEFAULT) ? INSTANCE : new StandardBoardEvaluator(parameters);
     }
 
-    private int scorePlayer(final Board board,
-                            final Player player,
-                            final int depth) {
-
-        return pieceValue(player) + mobility(player) + check(player) +
-                checkmate(player, depth) + castled(player) + centerOccupationBonus(player) + centerAttackBonus(player) + pawnStructure(player)
-                + rookStructure(board, player);
+    public EvaluationParameters getParameters() {
+        return this.parameters;
     }
 
-    private static int centerOccupationBonus(final Player player) {
-        int occupationBonus = 0;
-        if ((player.getActivePieces().size() + player.getOpponent().getActivePieces().size()) >= 10) {
-            for (Piece piece : player.getActivePieces()) {
-                if (piece.getPiecePosition() == BoardUtils.INSTANCE.getCoordinateAtPosition("d5") ||
-                        piece.getPiecePosition() == BoardUtils.INSTANCE.getCoordinateAtPosition("e5") ||
-                        piece.getPiecePosition() == BoardUtils.INSTANCE.getCoordinateAtPosition("d4") ||
-                        piece.getPiecePosition() == BoardUtils.INSTANCE.getCoordinateAtPosition("e4")) {
-                    occupationBonus += 4;
-                }
-
-            }
+    @Override
+    public int evaluate(final Board board, final int depth) {
+        final EvalContext context = CONTEXT.get();
+        context.fill(board);
+        final int[] coefficients = COEFFICIENTS.get();
+        context.coefficients(coefficients);
+        int score = pieceValue(board, Alliance.WHITE) - pieceValue(board, Alliance.BLACK);
+        for (int term = 0; term < coefficients.length; term++) {
+            score += this.weights[term] * coefficients[term];
         }
-        return occupationBonus;
+        return score + checkmate(board.whitePlayer(), depth, context) - checkmate(board.blackPlayer(), depth, context);
     }
 
-
-    private static int centerAttackBonus(final Player player) {
-
-        int attackBonus = 0;
-
-        if (player.getActivePieces().size() + player.getOpponent().getActivePieces().size() >= 10) {
-
-            Collection<Move> attackMovesOnD5 = Player.calculateAttacksOnTile(BoardUtils.INSTANCE.getCoordinateAtPosition("d5"), player.getLegalMoves());
-            Collection<Move> attackMovesOnE5 = Player.calculateAttacksOnTile(BoardUtils.INSTANCE.getCoordinateAtPosition("e5"), player.getLegalMoves());
-            Collection<Move> attackMovesOnD4 = Player.calculateAttacksOnTile(BoardUtils.INSTANCE.getCoordinateAtPosition("d4"), player.getLegalMoves());
-            Collection<Move> attackMovesOnE4 = Player.calculateAttacksOnTile(BoardUtils.INSTANCE.getCoordinateAtPosition("e4"), player.getLegalMoves());
-            if(player.getAlliance().isWhite()){
-                attackBonus += (attackMovesOnD5.size() + attackMovesOnE5.size()*2 + attackMovesOnD4.size() + attackMovesOnE4.size()*2);
-            }
-            else if (player.getAlliance().isBlack()){
-                attackBonus += (attackMovesOnD5.size()*2 + attackMovesOnE5.size() + attackMovesOnD4.size()*2 + attackMovesOnE4.size());
-            }
+    @Override
+    public int evaluate(final Board board,
+                        final int depth,
+                        final int alpha,
+                        final int beta) {
+        //schaak en mat zijn geen goedkope termen, dus dan altijd volledig
+        if (board.whitePlayer().isInCheck() || board.blackPlayer().isInCheck()) {
+            return evaluate(board, depth);
         }
-
-        if (attackBonus <= 0) {
-            return 0;
-        } else {
-            return attackBonus;
+        final int totalPieces = Long.bitCount(board.getOccupancy());
+        final long pawnStructure = PawnStructureAnalyzer.get().pawnStructure(board);
+        final long rookStructure = RookStructureAnalyzer.rookStructure(board);
+        final int partialScore = lazyScore(board, board.whitePlayer(), totalPieces, pawnStructure, rookStructure) -
+                lazyScore(board, board.blackPlayer(), totalPieces, pawnStructure, rookStructure);
+        if (partialScore + this.lazyMargin < alpha || partialScore - this.lazyMargin > beta) {
+            return partialScore;
         }
+        return evaluate(board, depth);
     }
 
+    @Override
+    public int getLazyMargin() {
+        return this.lazyMargin;
+    }
 
-    private static int castled(Player player) {
-        if (player.getActivePieces().size() + player.getOpponent().getActivePieces().size() >= 10) {
-            return player.isCastled() ? CASTLE_BONUS : 0;
+    //de termen die zonder zetten of aanvalsbitboards te berekenen zijn
+    private int lazyScore(final Board board,
+                          final Player player,
+                          final int totalPieces,
+                          final long pawnStructure,
+                          final long rookStructure) {
+        final Alliance alliance = player.getAlliance();
+        int score = pieceValue(board, alliance);
+        for (int field = 0; field < PawnStructureAnalyzer.PAWN_TERMS.length; field++) {
+            score += this.weights[PawnStructureAnalyzer.PAWN_TERMS[field].ordinal()] *
+                    PawnStructureAnalyzer.count(pawnStructure, alliance, field);
         }
-        return 0;
+        for (int field = 0; field < RookStructureAnalyzer.ROOK_TERMS.length; field++) {
+            score += this.weights[RookStructureAnalyzer.ROOK_TERMS[field].ordinal()] *
+                    RookStructureAnalyzer.count(rookStructure, alliance, field);
+        }
+        return score + (totalPieces >= EvalContext.MIDDLE_GAME_PIECES && player.isCastled() ? this.parameters.get(Term.CASTLED) : 0);
     }
 
-    private static int checkmate(Player player, int depth) {
-
-        return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * (depthBonus(depth) + Math.min(120, player.getActivePieces().size() * 10 + player.getOpponent().getActivePieces().size() * 10)) : 0;
+    private static int checkmate(final Player player,
+                                 final int depth,
+                                 final EvalContext context) {
+        final int own = context.pieceCount[player.getAlliance().ordinal()];
+        final int opponent = context.pieceCount[player.getOpponent().getAlliance().ordinal()];
+        return player.getOpponent().isInCheckMate() ? CHECK_MATE_BONUS * (depthBonus(depth) + Math.min(120, own * 10 + opponent * 10)) : 0;
     }
 
     private static int depthBonus(int depth) {
         return depth == 0 ? 1 : DEPTH_BONUS * depth;
     }
 
-    private static int check(Player player) {
-        return player.getOpponent().isInCheck() ? CHECK_BONUS : 0;
-    }
-
-    private static int mobility(Player player) {
-        return player.getLegalMoves().size();
-    }
-
-    private static int pawnStructure(final Player player) {
-        return PawnStructureAnalyzer.get().pawnStructureScore(player);
-    }
-
-    private static int rookStructure(final Board board, final Player player) {
-        return RookStructureAnalyzer.get().rookStructureScore(board, player);
-    }
-
-    private static int pieceValue(final Player player) {
-        int pieceValueScore = 0;
-        for (final Piece piece : player.getActivePieces()) {
-            pieceValueScore += piece.getPieceValue();
-        }
-        return pieceValueScore;
+    private static int pieceValue(final Board board, final Alliance alliance) {
+        return board.getMaterial(alliance);
     }
 }
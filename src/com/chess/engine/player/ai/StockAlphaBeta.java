@@ -4,59 +4,202 @@ package com.chess.engine.player.ai;
     import com.chess.engine.board.Board;
     import com.chess.engine.board.BoardUtils;
     import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
+import com.chess.engine.player.MoveUtils;
 import com.chess.engine.player.Player;
-import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Ordering;
+import com.chess.engine.tablebase.Tablebases;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Observable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static com.chess.engine.board.BoardUtils.mvvlva;
 import static com.chess.engine.board.Move.MoveFactory;
 
-    public class StockAlphaBeta extends Observable implements MoveStrategy {
+    public class StockAlphaBeta implements MoveStrategy {
 
-        private final BoardEvaluator evaluator;
+        private final EvaluationCache evaluator;
         private final int searchDepth;
+        private final boolean lateMoveReductions;
+        private final MoveHistory moveHistory;
+        private final Move[][] pvTable;
+        private final int[] pvLength;
+        private List<Move> principalVariation;
+        private volatile boolean stopped;
+        private SearchLimits limits;
+        private long deadline;
+        private Consumer<SearchResult> progressCallback;
+        private final List<SearchListener> searchListeners;
+        private long infoInterval;
+        private int selectiveDepth;
         private long boardsEvaluated;
         private int quiescenceCount;
         private static final int MAX_QUIESCENCE = 5000*10;
+        private static final int NULL_MOVE_MIN_DEPTH = 3;
+        private static final int NULL_MOVE_ADAPTIVE_DEPTH = 6;
+        private static final int NULL_MOVE_VERIFICATION_DEPTH = 5;
+        private static final int LMR_MIN_DEPTH = 3;
+        private static final int LMR_FULL_DEPTH_MOVES = 3;
+        private static final int[][] LMR_REDUCTIONS = createLateMoveReductionTable();
+        private static final int MAX_PV_PLY = 64;
+        private static final int RAZOR_DEPTH = 3;
+        private static final int RAZOR_MARGIN = 900;
+        private static final int[] FUTILITY_MARGINS = {0, 200, 500};
+        private static final int NO_EVAL = Integer.MIN_VALUE;
+        private static final int TABLEBASE_WIN = 100000;
+        private static final int LIMIT_CHECK_INTERVAL = 1024;
+        private static final long DEFAULT_INFO_INTERVAL = 100;
+        private static final ExecutorService SEARCH_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, "StockAlphaBeta search");
+            thread.setDaemon(true);
+            return thread;
+        });
 
         private enum MoveSorter {
 
             STANDARD {
                 @Override
-                Collection<Move> sort(final Collection<Move> moves) {
-                    return Ordering.from((Comparator<Move>) (move1, move2) -> ComparisonChain.start()
-                            .compareTrueFirst(move1.isCastlingMove(), move2.isCastlingMove())
-                            .compare(mvvlva(move2), mvvlva(move1))
-                            .result()).immutableSortedCopy(moves);
+                long sortKey(final Move move,
+                             final MoveHistory moveHistory,
+                             final int ply) {
+                    if (move.isCastlingMove()) {
+                        return CASTLE_KEY;
+                    }
+                    if (move.isAttack()) {
+                        //slagzetten die volgens SEE materiaal verliezen komen pas na de stille zetten
+                        return isLosingCapture(move) ? 0L : CAPTURE_KEY | ((long) mvvlva(move) << CAPTURE_SHIFT);
+                    }
+                    return (moveHistory.isKiller(move, ply) ? KILLER_KEY : 0L) |
+                            ((long) moveHistory.historyScore(move) << HISTORY_SHIFT) |
+                            mvvlva(move);
                 }
             },
             EXPENSIVE {
                 @Override
-                Collection<Move> sort(final Collection<Move> moves) {
-                    return Ordering.from((Comparator<Move>) (move1, move2) -> ComparisonChain.start()
-                            .compareTrueFirst(BoardUtils.kingThreat(move1), BoardUtils.kingThreat(move2))
-                            .compareTrueFirst(move1.isCastlingMove(), move2.isCastlingMove())
-                            .compare(mvvlva(move2), mvvlva(move1))
-                            .result()).immutableSortedCopy(moves);
+                long sortKey(final Move move,
+                             final MoveHistory moveHistory,
+                             final int ply) {
+                    return (BoardUtils.givesCheck(move) ? CHECK_KEY : 0L) |
+                            (move.isCastlingMove() ? CASTLE_KEY : 0L) |
+                            mvvlva(move);
                 }
             };
 
-            abstract  Collection<Move> sort(Collection<Move> moves);
+            private static final long CHECK_KEY = 1L << 62;
+            private static final long CASTLE_KEY = 1L << 61;
+            private static final long CAPTURE_KEY = 1L << 60;
+            private static final int CAPTURE_SHIFT = 36;
+            private static final long KILLER_KEY = 1L << 35;
+            private static final int HISTORY_SHIFT = 14;
+
+            abstract long sortKey(Move move, MoveHistory moveHistory, int ply);
+
+            //de sleutel van elke zet wordt maar een keer berekend, daarna wordt er alleen nog op de sleutels gesorteerd
+            Collection<Move> sort(final Collection<Move> moves,
+                                  final MoveHistory moveHistory,
+                                  final int ply) {
+                final Move[] sortedMoves = new Move[moves.size()];
+                final long[] sortKeys = new long[moves.size()];
+                int size = 0;
+                for (final Move move : moves) {
+                    final long sortKey = sortKey(move, moveHistory, ply);
+                    int i = size++;
+                    while (i > 0 && sortKeys[i - 1] < sortKey) {
+                        sortKeys[i] = sortKeys[i - 1];
+                        sortedMoves[i] = sortedMoves[i - 1];
+                        i--;
+                    }
+                    sortKeys[i] = sortKey;
+                    sortedMoves[i] = move;
+                }
+                return Arrays.asList(sortedMoves);
+            }
         }
 
 
         public StockAlphaBeta(final int searchDepth) {
-            this.evaluator = StandardBoardEvaluator.get();
+            this(searchDepth, true);
+        }
+
+        public StockAlphaBeta(final int searchDepth,
+                              final boolean lateMoveReductions) {
+            this(searchDepth, lateMoveReductions, new MoveHistory(),
+                    new EvaluationCache(StandardBoardEvaluator.get(), EvaluationCache.DEFAULT_ENTRIES));
+        }
+
+        public StockAlphaBeta(final int searchDepth,
+                              final BoardEvaluator evaluator) {
+            this(searchDepth, true, new MoveHistory(), new EvaluationCache(evaluator, EvaluationCache.DEFAULT_ENTRIES));
+        }
+
+        private StockAlphaBeta(final int searchDepth,
+                               final boolean lateMoveReductions,
+                               final MoveHistory moveHistory,
+                               final EvaluationCache evaluator) {
+            this.evaluator = evaluator;
             this.searchDepth = searchDepth;
+            this.lateMoveReductions = lateMoveReductions;
+            this.moveHistory = moveHistory;
+            this.pvTable = new Move[MAX_PV_PLY][MAX_PV_PLY];
+            this.pvLength = new int[MAX_PV_PLY];
+            this.principalVariation = Collections.emptyList();
+            this.stopped = false;
+            this.limits = SearchLimits.NONE;
+            this.deadline = Long.MAX_VALUE;
+            this.progressCallback = null;
+            this.searchListeners = new CopyOnWriteArrayList<>();
+            this.infoInterval = DEFAULT_INFO_INTERVAL;
+            this.selectiveDepth = 0;
             this.boardsEvaluated = 0;
             this.quiescenceCount = 0;
         }
 
+        //een nieuwe zoekopdracht die de killer- en historytabellen en de evaluatiecache van deze zoekopdracht overneemt
+        public StockAlphaBeta withSearchDepth(final int searchDepth) {
+            return new StockAlphaBeta(searchDepth, this.lateMoveReductions, this.moveHistory, this.evaluator);
+        }
+
+        public EvaluationCache getEvaluationCache() {
+            return this.evaluator;
+        }
+
+        public List<Move> getPrincipalVariation() {
+            return this.principalVariation;
+        }
+
+        public void addSearchListener(final SearchListener searchListener) {
+            this.searchListeners.add(searchListener);
+        }
+
+        public void removeSearchListener(final SearchListener searchListener) {
+            this.searchListeners.remove(searchListener);
+        }
+
+        //minimale tijd in milliseconden tussen twee SearchInfo-meldingen
+        public void setInfoInterval(final long infoInterval) {
+            if (infoInterval < 0) {
+                throw new IllegalArgumentException("info interval must not be negative: " + infoInterval);
+            }
+            this.infoInterval = infoInterval;
+        }
+
+        //stopt de lopende zoekopdracht, of de volgende als er nog geen loopt; na het resultaat kan er opnieuw gezocht worden
+        public void stop() {
+            this.stopped = true;
+        }
+
+        public boolean isStopped() {
+            return this.stopped;
+        }
+
         @Override
         public String toString() {
             return "StockAlphaBeta";
@@ -68,28 +211,107 @@ import static com.chess.engine.board.Move.MoveFactory;
 
         @Override
         public Move execute(final Board board) {
+            return search(board).getBestMove();
+        }
+
+        //start de zoekopdracht op een achtergrondthread; via de handle kan hij op elk moment gestopt worden
+        public SearchHandle executeAsync(final Board board,
+                                         final SearchLimits limits,
+                                         final Consumer<SearchResult> progressCallback) {
+            this.limits = limits;
+            this.progressCallback = progressCallback;
+            return new SearchHandle(this, CompletableFuture.supplyAsync(() -> search(board), SEARCH_EXECUTOR));
+        }
+
+        public SearchHandle executeAsync(final Board board,
+                                         final SearchLimits limits) {
+            return executeAsync(board, limits, null);
+        }
+
+        public SearchResult search(final Board board) {
+            startSearch();
+            try {
+                return search(board, Collections.emptyList(), 1);
+            } finally {
+                this.stopped = false;
+            }
+        }
+
+        //de beste numPrincipalVariations zetten met exacte scores; elke ronde sluit de al gevonden zetten uit
+        public List<SearchResult> executeMultiPV(final Board board,
+                                                 final int numPrincipalVariations) {
+            final List<SearchResult> results = new ArrayList<>();
+            final List<Move> excludedMoves = new ArrayList<>();
+            startSearch();
+            try {
+                while (results.size() < numPrincipalVariations && !this.stopped) {
+                    final SearchResult result = search(board, excludedMoves, results.size() + 1);
+                    //een afgebroken ronde heeft geen exacte score meer, alleen de eerste variant wordt dan nog teruggegeven
+                    if (result.getBestMove() == MoveFactory.getNullMove() || (result.isStopped() && !results.isEmpty())) {
+                        break;
+                    }
+                    results.add(result);
+                    excludedMoves.add(result.getBestMove());
+                }
+            } finally {
+                this.stopped = false;
+            }
+            return Collections.unmodifiableList(results);
+        }
+
+        //de tellers gelden per zoekopdracht; de stopvlag niet, een stop() van voor de start moet blijven staan
+        private void startSearch() {
+            this.boardsEvaluated = 0;
+            this.selectiveDepth = 0;
+        }
+
+        private SearchResult search(final Board board,
+                                    final Collection<Move> excludedMoves,
+                                    final int multiPv) {
             final long startTime = System.currentTimeMillis();
+            this.deadline = this.limits.hasTimeLimit() ? startTime + this.limits.getTimeLimit() : Long.MAX_VALUE;
             final Player currentPlayer = board.currentPlayer();
             Move bestMove = MoveFactory.getNullMove();
+            Move firstLegalMove = MoveFactory.getNullMove();
             int highestSeenValue = Integer.MIN_VALUE;
             int lowestSeenValue = Integer.MAX_VALUE;
             int currentValue;
-            System.out.println(board.currentPlayer() + " THINKING with depth = " + this.searchDepth);
             int moveCounter = 1;
-            int numMoves = board.currentPlayer().getLegalMoves().size();
+            final int numMoves = board.currentPlayer().getLegalMoves().size();
+            long lastInfoTime = startTime;
+            if (excludedMoves.isEmpty()) {
+                this.moveHistory.age();
+                this.moveHistory.clearKillers();
+                //in een eindspel uit de tabellen wordt niet gezocht: de tabel kent de snelste winst of langste verdediging
+                final Move tablebaseMove = Tablebases.INSTANCE.bestMove(board);
+                if (tablebaseMove != null) {
+                    return createTablebaseResult(board, tablebaseMove, startTime);
+                }
+            }
 
-            for (final Move move : MoveSorter.EXPENSIVE.sort((board.currentPlayer().getLegalMoves()))) {
+            for (final Move move : MoveSorter.EXPENSIVE.sort(board.currentPlayer().getLegalMoves(), this.moveHistory, 0)) {
+                if (this.stopped) {
+                    break;
+                }
+                if (excludedMoves.contains(move)) {
+                    continue;
+                }
                 final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
                 this.quiescenceCount = 0;
-                final String s;
                 if (moveTransition.getMoveStatus().isDone()) {
-                    final long candidateMoveStartTime = System.nanoTime();
+                    if (firstLegalMove == MoveFactory.getNullMove()) {
+                        firstLegalMove = move;
+                    }
                     currentValue = currentPlayer.getAlliance().isWhite() ?
-                            min(moveTransition.getToBoard(), this.searchDepth - 1, highestSeenValue, lowestSeenValue) :
-                            max(moveTransition.getToBoard(), this.searchDepth - 1, highestSeenValue, lowestSeenValue);
+                            min(moveTransition.getToBoard(), this.searchDepth - 1, 1, highestSeenValue, lowestSeenValue, true) :
+                            max(moveTransition.getToBoard(), this.searchDepth - 1, 1, highestSeenValue, lowestSeenValue, true);
+                    if (this.stopped) {
+                        break;
+                    }
                     if (currentPlayer.getAlliance().isWhite() && currentValue > highestSeenValue) {
                         highestSeenValue = currentValue;
                         bestMove = move;
+                        this.principalVariation = collectPrincipalVariation(move);
                         if(moveTransition.getToBoard().blackPlayer().isInCheckMate()) {
                             break;
                         }
@@ -97,61 +319,165 @@ import static com.chess.engine.board.Move.MoveFactory;
                     else if (currentPlayer.getAlliance().isBlack() && currentValue < lowestSeenValue) {
                         lowestSeenValue = currentValue;
                         bestMove = move;
+                        this.principalVariation = collectPrincipalVariation(move);
                         if(moveTransition.getToBoard().whitePlayer().isInCheckMate()) {
                             break;
                         }
                     }
-
-                    final String quiescenceInfo = " " + score(currentPlayer, highestSeenValue, lowestSeenValue) + " q: " +this.quiescenceCount;
-                    s = "\t" + toString() + "(" +this.searchDepth+ "), m: (" +moveCounter+ "/" +numMoves+ ") " + move + ", best:  " + bestMove
-
-                            + quiescenceInfo + ", t: " +calculateTimeTaken(candidateMoveStartTime, System.nanoTime());
-                } else {
-                    s = "\t" + toString() + ", m: (" +moveCounter+ "/" +numMoves+ ") " + move + " is illegal! best: " +bestMove;
+                    //zonder luisteraars wordt er niets opgebouwd
+                    final long now = System.currentTimeMillis();
+                    if (!this.searchListeners.isEmpty() && bestMove != MoveFactory.getNullMove() &&
+                            now - lastInfoTime >= this.infoInterval) {
+                        lastInfoTime = now;
+                        notifySearchInfo(new SearchInfo(this.searchDepth, this.selectiveDepth,
+                                currentPlayer.getAlliance().isWhite() ? highestSeenValue : lowestSeenValue,
+                                this.boardsEvaluated, now - startTime, this.evaluator.hashFull(), this.principalVariation,
+                                move, moveCounter, numMoves, multiPv));
+                    }
+                }
+                if (this.progressCallback != null && bestMove != MoveFactory.getNullMove()) {
+                    this.progressCallback.accept(createResult(currentPlayer, bestMove, highestSeenValue, lowestSeenValue, startTime));
                 }
-                System.out.println(s);
-                setChanged();
-                notifyObservers(s);
                 moveCounter++;
             }
+            if (bestMove == MoveFactory.getNullMove()) {
+                //afgebroken voordat een zet volledig doorgerekend was
+                bestMove = firstLegalMove;
+                if (firstLegalMove != MoveFactory.getNullMove()) {
+                    this.principalVariation = Collections.singletonList(firstLegalMove);
+                }
+            }
 
-            long executionTime = System.currentTimeMillis() - startTime;
-            final String result = board.currentPlayer() + " SELECTS " +bestMove+ " [#boards evaluated = " +this.boardsEvaluated+
-                    " time taken = " + executionTime /1000+ " rate = " +(1000 * ((double)this.boardsEvaluated/ executionTime));
-            System.out.printf("%s SELECTS %s [#boards evaluated = %d, time taken = %d ms, rate = %.1f\n", board.currentPlayer(),
-                    bestMove, this.boardsEvaluated, executionTime, (1000 * ((double)this.boardsEvaluated/ executionTime)));
-            setChanged();
-            notifyObservers(result);
-            return bestMove;
+            final SearchResult result = createResult(currentPlayer, bestMove, highestSeenValue, lowestSeenValue, startTime);
+            for (final SearchListener searchListener : this.searchListeners) {
+                searchListener.searchFinished(result);
+            }
+            return result;
         }
 
-        private static String score(final Player currentPlayer,
-                                    final int highestSeenValue,
-                                    final int lowestSeenValue) {
+        private SearchResult createTablebaseResult(final Board board,
+                                                   final Move tablebaseMove,
+                                                   final long startTime) {
+            final int dtm = Tablebases.INSTANCE.probeDtm(board);
+            final int score = dtm > 0 ? TABLEBASE_WIN - dtm : dtm < 0 ? -TABLEBASE_WIN - dtm : 0;
+            this.principalVariation = Collections.singletonList(tablebaseMove);
+            final SearchResult result = new SearchResult(tablebaseMove,
+                    board.currentPlayer().getAlliance().isWhite() ? score : -score,
+                    this.principalVariation, this.boardsEvaluated, System.currentTimeMillis() - startTime, false);
+            for (final SearchListener searchListener : this.searchListeners) {
+                searchListener.searchFinished(result);
+            }
+            return result;
+        }
 
-            if(currentPlayer.getAlliance().isWhite()) {
-                return "[score: " +highestSeenValue + "]";
-            } else if(currentPlayer.getAlliance().isBlack()) {
-                return "[score: " +lowestSeenValue+ "]";
+        //winst of verlies uit de tabellen, dichter bij de wortel is beter; NO_EVAL als de stelling er niet in staat
+        private static int tablebaseScore(final Board board,
+                                          final int ply) {
+            if (board.getWhitePieces().size() + board.getBlackPieces().size() > Tablebases.MAX_PIECES ||
+                    !Tablebases.INSTANCE.isAvailable()) {
+                return NO_EVAL;
+            }
+            final int wdl = Tablebases.INSTANCE.probeWdl(board);
+            if (wdl == Tablebases.UNKNOWN) {
+                return NO_EVAL;
+            }
+            final int score = wdl * (TABLEBASE_WIN - ply);
+            return board.currentPlayer().getAlliance().isWhite() ? score : -score;
+        }
+
+        private void notifySearchInfo(final SearchInfo searchInfo) {
+            for (final SearchListener searchListener : this.searchListeners) {
+                searchListener.searchInfo(searchInfo);
+            }
+        }
+
+        private SearchResult createResult(final Player currentPlayer,
+                                          final Move bestMove,
+                                          final int highestSeenValue,
+                                          final int lowestSeenValue,
+                                          final long startTime) {
+            return new SearchResult(bestMove,
+                    currentPlayer.getAlliance().isWhite() ? highestSeenValue : lowestSeenValue,
+                    this.principalVariation, this.boardsEvaluated,
+                    System.currentTimeMillis() - startTime, this.stopped);
+        }
+
+        //node- en tijdslimieten zetten dezelfde stopvlag als stop()
+        private void checkLimits() {
+            if (this.boardsEvaluated >= this.limits.getNodeLimit() ||
+                    (this.boardsEvaluated % LIMIT_CHECK_INTERVAL == 0 && System.currentTimeMillis() >= this.deadline)) {
+                this.stopped = true;
             }
-            throw new RuntimeException("bad bad boy!");
         }
 
         private int max(final Board board,
                         final int depth,
+                        final int ply,
                         final int highest,
-                        final int lowest) {
+                        final int lowest,
+                        final boolean nullMoveAllowed) {
+            if (this.stopped) {
+                return highest;
+            }
+            clearPrincipalVariation(ply);
             if (depth == 0 || BoardUtils.isEndGame(board)) {
                 this.boardsEvaluated++;
-                return this.evaluator.evaluate(board, depth);
+                this.selectiveDepth = Math.max(this.selectiveDepth, ply);
+                checkLimits();
+                return this.evaluator.evaluate(board, depth, highest, lowest);
+            }
+            final int tablebaseScore = tablebaseScore(board, ply);
+            if (tablebaseScore != NO_EVAL) {
+                this.boardsEvaluated++;
+                return tablebaseScore;
+            }
+            if (nullMoveAllowed && isNullMoveCandidate(board, depth)) {
+                final int reduction = nullMoveReduction(depth);
+                final int nullMoveValue = min(BoardUtils.nullMoveBoard(board),
+                        Math.max(0, depth - 1 - reduction), ply + 1, lowest - 1, lowest, false);
+                if (nullMoveValue >= lowest && (depth < NULL_MOVE_VERIFICATION_DEPTH ||
+                        max(board, depth - reduction, ply, lowest - 1, lowest, false) >= lowest)) {
+                    return lowest;
+                }
+                clearPrincipalVariation(ply);
             }
+            //de statische evaluatie is duur en wordt alleen berekend als er met een eindige grens gesnoeid kan worden
+            final boolean frontierNode = isFrontierNode(board, depth);
+            int staticEval = frontierNode && depth == RAZOR_DEPTH && highest != Integer.MIN_VALUE ?
+                    this.evaluator.evaluate(board, depth) : NO_EVAL;
+            //razoring: ver onder alpha wordt een knoop een ply minder diep doorgerekend
+            final int searchDepth = staticEval != NO_EVAL && staticEval + RAZOR_MARGIN <= highest ? depth - 1 : depth;
             int currentHighest = highest;
-            for (final Move move : MoveSorter.STANDARD.sort((board.currentPlayer().getLegalMoves()))) {
+            int moveCounter = 0;
+            for (final Move move : MoveSorter.STANDARD.sort(board.currentPlayer().getLegalMoves(), this.moveHistory, ply)) {
+                //zoals bij futility niet onder schaak en niet zolang er geen eindige grens is: anders kan elke zet
+                //overgeslagen worden en lijkt de knoop mat
+                if (frontierNode && searchDepth == 1 && currentHighest != Integer.MIN_VALUE &&
+                        isLosingCapture(move) && !BoardUtils.givesCheck(move)) {
+                    continue;
+                }
+                if (frontierNode && searchDepth < FUTILITY_MARGINS.length && currentHighest != Integer.MIN_VALUE && isFutile(move)) {
+                    if (staticEval == NO_EVAL) {
+                        staticEval = this.evaluator.evaluate(board, depth);
+                    }
+                    if (staticEval + FUTILITY_MARGINS[searchDepth] <= currentHighest) {
+                        continue;
+                    }
+                }
                 final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
                 if (moveTransition.getMoveStatus().isDone()) {
-                    currentHighest = Math.max(currentHighest, min(moveTransition.getToBoard(),
-                            calculateQuiescenceDepth(moveTransition, depth), currentHighest, lowest));
+                    final int childDepth = calculateQuiescenceDepth(moveTransition, searchDepth);
+                    final int reduction = lateMoveReduction(moveTransition, searchDepth, moveCounter++);
+                    int currentValue = min(moveTransition.getToBoard(), childDepth - reduction, ply + 1, currentHighest, lowest, true);
+                    if (reduction > 0 && currentValue > currentHighest) {
+                        currentValue = min(moveTransition.getToBoard(), childDepth, ply + 1, currentHighest, lowest, true);
+                    }
+                    if (currentValue > currentHighest) {
+                        currentHighest = currentValue;
+                        updatePrincipalVariation(ply, move);
+                    }
                     if (currentHighest >= lowest) {
+                        recordCutoff(move, ply, searchDepth);
                         return lowest;
                     }
                 }
@@ -161,19 +487,68 @@ import static com.chess.engine.board.Move.MoveFactory;
 
         private int min(final Board board,
                         final int depth,
+                        final int ply,
                         final int highest,
-                        final int lowest) {
+                        final int lowest,
+                        final boolean nullMoveAllowed) {
+            if (this.stopped) {
+                return lowest;
+            }
+            clearPrincipalVariation(ply);
             if (depth == 0 || BoardUtils.isEndGame(board)) {
                 this.boardsEvaluated++;
-                return this.evaluator.evaluate(board, depth);
+                this.selectiveDepth = Math.max(this.selectiveDepth, ply);
+                checkLimits();
+                return this.evaluator.evaluate(board, depth, highest, lowest);
+            }
+            final int tablebaseScore = tablebaseScore(board, ply);
+            if (tablebaseScore != NO_EVAL) {
+                this.boardsEvaluated++;
+                return tablebaseScore;
             }
+            if (nullMoveAllowed && isNullMoveCandidate(board, depth)) {
+                final int reduction = nullMoveReduction(depth);
+                final int nullMoveValue = max(BoardUtils.nullMoveBoard(board),
+                        Math.max(0, depth - 1 - reduction), ply + 1, highest, highest + 1, false);
+                if (nullMoveValue <= highest && (depth < NULL_MOVE_VERIFICATION_DEPTH ||
+                        min(board, depth - reduction, ply, highest, highest + 1, false) <= highest)) {
+                    return highest;
+                }
+                clearPrincipalVariation(ply);
+            }
+            final boolean frontierNode = isFrontierNode(board, depth);
+            int staticEval = frontierNode && depth == RAZOR_DEPTH && lowest != Integer.MAX_VALUE ?
+                    this.evaluator.evaluate(board, depth) : NO_EVAL;
+            final int searchDepth = staticEval != NO_EVAL && staticEval - RAZOR_MARGIN >= lowest ? depth - 1 : depth;
             int currentLowest = lowest;
-            for (final Move move : MoveSorter.STANDARD.sort((board.currentPlayer().getLegalMoves()))) {
+            int moveCounter = 0;
+            for (final Move move : MoveSorter.STANDARD.sort(board.currentPlayer().getLegalMoves(), this.moveHistory, ply)) {
+                if (frontierNode && searchDepth == 1 && currentLowest != Integer.MAX_VALUE &&
+                        isLosingCapture(move) && !BoardUtils.givesCheck(move)) {
+                    continue;
+                }
+                if (frontierNode && searchDepth < FUTILITY_MARGINS.length && currentLowest != Integer.MAX_VALUE && isFutile(move)) {
+                    if (staticEval == NO_EVAL) {
+                        staticEval = this.evaluator.evaluate(board, depth);
+                    }
+                    if (staticEval - FUTILITY_MARGINS[searchDepth] >= currentLowest) {
+                        continue;
+                    }
+                }
                 final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
                 if (moveTransition.getMoveStatus().isDone()) {
-                    currentLowest = Math.min(currentLowest, max(moveTransition.getToBoard(),
-                            calculateQuiescenceDepth(moveTransition, depth), highest, currentLowest));
+                    final int childDepth = calculateQuiescenceDepth(moveTransition, searchDepth);
+                    final int reduction = lateMoveReduction(moveTransition, searchDepth, moveCounter++);
+                    int currentValue = max(moveTransition.getToBoard(), childDepth - reduction, ply + 1, highest, currentLowest, true);
+                    if (reduction > 0 && currentValue < currentLowest) {
+                        currentValue = max(moveTransition.getToBoard(), childDepth, ply + 1, highest, currentLowest, true);
+                    }
+                    if (currentValue < currentLowest) {
+                        currentLowest = currentValue;
+                        updatePrincipalVariation(ply, move);
+                    }
                     if (currentLowest <= highest) {
+                        recordCutoff(move, ply, searchDepth);
                         return highest;
                     }
                 }
@@ -181,6 +556,104 @@ import static com.chess.engine.board.Move.MoveFactory;
             return currentLowest;
         }
 
+        private void clearPrincipalVariation(final int ply) {
+            if (ply < MAX_PV_PLY) {
+                this.pvLength[ply] = ply;
+            }
+        }
+
+        private void updatePrincipalVariation(final int ply,
+                                              final Move move) {
+            if (ply + 1 >= MAX_PV_PLY) {
+                return;
+            }
+            this.pvTable[ply][ply] = move;
+            final int childLength = Math.max(this.pvLength[ply + 1], ply + 1);
+            System.arraycopy(this.pvTable[ply + 1], ply + 1, this.pvTable[ply], ply + 1, childLength - (ply + 1));
+            this.pvLength[ply] = childLength;
+        }
+
+        private List<Move> collectPrincipalVariation(final Move rootMove) {
+            final List<Move> principalVariation = new ArrayList<>();
+            principalVariation.add(rootMove);
+            principalVariation.addAll(Arrays.asList(this.pvTable[1]).subList(1, Math.max(this.pvLength[1], 1)));
+            return Collections.unmodifiableList(principalVariation);
+        }
+
+        private void recordCutoff(final Move move,
+                                  final int ply,
+                                  final int depth) {
+            if (isQuietMove(move)) {
+                this.moveHistory.recordCutoff(move, ply, depth);
+            }
+        }
+
+        //passen is niet veilig als de speler schaak staat of alleen nog koning en pionnen heeft (zugzwang)
+        private static boolean isNullMoveCandidate(final Board board,
+                                                   final int depth) {
+            return depth >= NULL_MOVE_MIN_DEPTH &&
+                    !board.currentPlayer().isInCheck() &&
+                    !hasOnlyKingAndPawns(board.currentPlayer());
+        }
+
+        private static boolean hasOnlyKingAndPawns(final Player player) {
+            for (final Piece piece : player.getActivePieces()) {
+                if (!piece.getPieceType().isPawn() && !piece.getPieceType().isKing()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //vlak voor de bladeren: de statische evaluatie bepaalt of stille zetten nog iets kunnen goedmaken
+        private static boolean isFrontierNode(final Board board,
+                                              final int depth) {
+            return depth <= RAZOR_DEPTH && !board.currentPlayer().isInCheck();
+        }
+
+        //een stille zet zonder schaak verandert het materiaal niet en wint de marge dus niet terug
+        private static boolean isFutile(final Move move) {
+            return isQuietMove(move) && !BoardUtils.givesCheck(move);
+        }
+
+        private static int nullMoveReduction(final int depth) {
+            return depth > NULL_MOVE_ADAPTIVE_DEPTH ? 3 : 2;
+        }
+
+        private int lateMoveReduction(final MoveTransition moveTransition,
+                                      final int depth,
+                                      final int moveCounter) {
+            if (!this.lateMoveReductions ||
+                    depth < LMR_MIN_DEPTH ||
+                    moveCounter < LMR_FULL_DEPTH_MOVES ||
+                    !(isQuietMove(moveTransition.getTransitionMove()) || isLosingCapture(moveTransition.getTransitionMove())) ||
+                    moveTransition.getFromBoard().currentPlayer().isInCheck() ||
+                    moveTransition.getToBoard().currentPlayer().isInCheck()) {
+                return 0;
+            }
+            final int reduction = LMR_REDUCTIONS[Math.min(depth, LMR_REDUCTIONS.length - 1)]
+                    [Math.min(moveCounter, LMR_REDUCTIONS.length - 1)];
+            return Math.min(reduction, depth - 2);
+        }
+
+        private static boolean isLosingCapture(final Move move) {
+            return move.isAttack() && MoveUtils.staticExchangeEvaluation(move) < 0;
+        }
+
+        private static boolean isQuietMove(final Move move) {
+            return !move.isAttack() && !move.isCastlingMove() && !(move instanceof Move.PawnPromotion);
+        }
+
+        private static int[][] createLateMoveReductionTable() {
+            final int[][] reductions = new int[64][64];
+            for (int depth = 1; depth < reductions.length; depth++) {
+                for (int moveCounter = 1; moveCounter < reductions[depth].length; moveCounter++) {
+                    reductions[depth][moveCounter] = (int) (0.75 + Math.log(depth) * Math.log(moveCounter) / 2.25);
+                }
+            }
+            return reductions;
+        }
+
         private int calculateQuiescenceDepth(final MoveTransition moveTransition,
                                              final int depth) {
             if(depth == 1 && this.quiescenceCount < MAX_QUIESCENCE) {
@@ -200,9 +673,4 @@ import static com.chess.engine.board.Move.MoveFactory;
             }
             return depth - 1;
         }
-
-        private static String calculateTimeTaken(final long start, final long end) {
-            final long timeTaken = (end - start) / 1000000;
-            return timeTaken + " ms";
-        }
 }
@@ -0,0 +1,376 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.player.ai.EvaluationParameters.Term;
+import com.chess.fen.FenUtilities;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnUtilities;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Texel-tuning van de EvaluationParameters. Van elke rustige stelling worden bij het laden eenmalig het
+ * materiaalverschil en de coefficienten uit EvalContext bewaard, zodat de evaluatie tijdens het tunen alleen een
+ * inproduct is en er geen borden of zetten meer nodig zijn. De fout is het gemiddelde van
+ * (uitslag - sigmoid(K * score))^2 en wordt over een ForkJoinPool verdeeld. Daarna coordinate descent met stappen
+ * van 1 per term, tot geen enkele stap de fout nog verlaagt.
+ *
+ * Gebruik: TexelTuner [-iterations n] [-threads n] [-out params.txt] <posities.epd|partijen.pgn...>
+ * Een EPD-regel bevat een FEN en de uitslag als 1-0, 0-1, 1/2-1/2 of [1.0], [0.5], [0.0].
+ */
+public final class TexelTuner {
+
+    private static final int THRESHOLD = 8192;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    //de eerste zetten van een partij komen uit het openingsboek en zeggen weinig over de evaluatie
+    private static final int SKIP_PLIES = 8;
+    private static final double GOLDEN_RATIO = (Math.sqrt(5) - 1) / 2;
+
+    private static final ThreadLocal<EvalContext> CONTEXT = ThreadLocal.withInitial(EvalContext::new);
+
+    private final ForkJoinPool pool;
+    private int size;
+    private int[] baseScores;
+    private short[] coefficients;
+    //halve punten voor wit
+    private byte[] results;
+    private double scalingConstant;
+
+    public TexelTuner(final int threads) {
+        this.pool = new ForkJoinPool(threads);
+        this.baseScores = new int[INITIAL_CAPACITY];
+        this.coefficients = new short[INITIAL_CAPACITY * EvaluationParameters.NUM_TERMS];
+        this.results = new byte[INITIAL_CAPACITY];
+        this.scalingConstant = 1.0;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        int iterations = Integer.MAX_VALUE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = Paths.get("params.txt");
+        int argument = 0;
+        while (argument < args.length && args[argument].startsWith("-")) {
+            switch (args[argument++]) {
+                case "-iterations":
+                    iterations = Integer.parseInt(args[argument++]);
+                    break;
+                case "-threads":
+                    threads = Integer.parseInt(args[argument++]);
+                    break;
+                case "-out":
+                    out = Paths.get(args[argument++]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[argument - 1]);
+            }
+        }
+        if (argument == args.length) {
+            System.err.println("usage: TexelTuner [-iterations n] [-threads n] [-out params.txt] <positions.epd|games.pgn...>");
+            return;
+        }
+        final TexelTuner tuner = new TexelTuner(threads);
+        try {
+            for (int file = argument; file < args.length; file++) {
+                final Path path = Paths.get(args[file]);
+                if (path.toString().endsWith(".pgn")) {
+                    tuner.loadPgn(path);
+                } else {
+                    tuner.loadEpd(path);
+                }
+            }
+            final long startTime = System.currentTimeMillis();
+            final double scalingConstant = tuner.tuneScalingConstant();
+            System.out.println(tuner.size() + " positions, K = " + scalingConstant +
+                    ", loss = " + tuner.loss(EvaluationParameters.DEFAULT));
+            final EvaluationParameters tuned = tuner.tune(EvaluationParameters.DEFAULT, iterations);
+            tuned.write(out);
+            System.out.println("loss = " + tuner.loss(tuned) + " in " + (System.currentTimeMillis() - startTime) + " ms");
+            System.out.print(tuned);
+        } finally {
+            tuner.shutdown();
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public double getScalingConstant() {
+        return this.scalingConstant;
+    }
+
+    public void setScalingConstant(final double scalingConstant) {
+        this.scalingConstant = scalingConstant;
+    }
+
+    //result is de uitslag voor wit: 1, 0.5 of 0; stellingen waarin een kant schaak staat zijn niet rustig
+    public boolean addPosition(final Board board,
+                               final double result) {
+        final Entry entry = entry(board, result);
+        if (entry == null) {
+            return false;
+        }
+        add(entry);
+        return true;
+    }
+
+    public void loadEpd(final Path file) throws IOException {
+        final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        final Entry[] entries = new Entry[lines.size()];
+        this.pool.invoke(new ParseTask(lines, entries, 0, lines.size()));
+        for (final Entry entry : entries) {
+            if (entry != null) {
+                add(entry);
+            }
+        }
+    }
+
+    //alleen stellingen waarin de gespeelde zet geen slag of promotie is en niemand schaak staat
+    public void loadPgn(final Path file) throws IOException {
+        try (final PgnReader reader = PgnReader.open(file)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                final double result = parseResult(game.getResult());
+                if (Double.isNaN(result) || game.getTag("FEN") != null) {
+                    continue;
+                }
+                Board board = Board.createStandardBoard();
+                final List<String> moves = game.getMoves();
+                for (int ply = 0; ply < moves.size(); ply++) {
+                    final Move move = PgnUtilities.createMoveFromSAN(board, moves.get(ply));
+                    if (move == MoveFactory.getNullMove()) {
+                        break;
+                    }
+                    final boolean quiet = !move.isAttack() && !(move instanceof Move.PawnPromotion);
+                    if (ply >= SKIP_PLIES && quiet) {
+                        addPosition(board, result);
+                    }
+                    board = board.currentPlayer().makeMove(move).getToBoard();
+                }
+            }
+        }
+    }
+
+    public double loss(final EvaluationParameters parameters) {
+        if (this.size == 0) {
+            return 0;
+        }
+        return this.pool.invoke(new LossTask(parameters.toArray(), 0, this.size)) / this.size;
+    }
+
+    //gulden-snedezoektocht naar de K waarbij de standaardgewichten de kleinste fout hebben
+    public double tuneScalingConstant() {
+        double low = 0.0;
+        double high = 3.0;
+        while (high - low > 1e-4) {
+            final double left = high - GOLDEN_RATIO * (high - low);
+            final double right = low + GOLDEN_RATIO * (high - low);
+            this.scalingConstant = left;
+            final double leftLoss = loss(EvaluationParameters.DEFAULT);
+            this.scalingConstant = right;
+            final double rightLoss = loss(EvaluationParameters.DEFAULT);
+            if (leftLoss < rightLoss) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+        this.scalingConstant = (low + high) / 2;
+        return this.scalingConstant;
+    }
+
+    public EvaluationParameters tune(final EvaluationParameters start,
+                                     final int maxIterations) {
+        EvaluationParameters best = start;
+        double bestLoss = loss(best);
+        boolean improved = true;
+        for (int iteration = 0; improved && iteration < maxIterations; iteration++) {
+            improved = false;
+            for (final Term term : Term.values()) {
+                for (final int step : new int[]{1, -1}) {
+                    final EvaluationParameters candidate = best.with(term, best.get(term) + step);
+                    final double candidateLoss = loss(candidate);
+                    if (candidateLoss < bestLoss) {
+                        best = candidate;
+                        bestLoss = candidateLoss;
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    private void add(final Entry entry) {
+        if (this.size == this.results.length) {
+            final int capacity = 2 * this.size;
+            this.baseScores = Arrays.copyOf(this.baseScores, capacity);
+            this.coefficients = Arrays.copyOf(this.coefficients, capacity * EvaluationParameters.NUM_TERMS);
+            this.results = Arrays.copyOf(this.results, capacity);
+        }
+        this.baseScores[this.size] = entry.baseScore;
+        System.arraycopy(entry.coefficients, 0, this.coefficients, this.size * EvaluationParameters.NUM_TERMS,
+                EvaluationParameters.NUM_TERMS);
+        this.results[this.size] = entry.result;
+        this.size++;
+    }
+
+    private static Entry entry(final Board board,
+                               final double result) {
+        if (board.whitePlayer().isInCheck() || board.blackPlayer().isInCheck()) {
+            return null;
+        }
+        final EvalContext context = CONTEXT.get();
+        context.fill(board);
+        final int[] values = new int[EvaluationParameters.NUM_TERMS];
+        context.coefficients(values);
+        final short[] coefficients = new short[values.length];
+        for (int term = 0; term < values.length; term++) {
+            coefficients[term] = (short) values[term];
+        }
+        return new Entry(board.getMaterial(Alliance.WHITE) - board.getMaterial(Alliance.BLACK), coefficients,
+                (byte) Math.round(2 * result));
+    }
+
+    private static Entry parseEpd(final String line) {
+        final String[] fields = line.trim().split("\\s+");
+        if (fields.length < 5) {
+            return null;
+        }
+        double result = Double.NaN;
+        for (int field = 4; field < fields.length && Double.isNaN(result); field++) {
+            result = parseResult(fields[field].replaceAll("[\";]", ""));
+        }
+        if (Double.isNaN(result)) {
+            return null;
+        }
+        //zetnummers zijn niet altijd aanwezig en doen voor de evaluatie niet ter zake
+        final String fen = fields[0] + " " + fields[1] + " " + fields[2] + " " + fields[3] + " 0 1";
+        return entry(FenUtilities.createGameFromFEN(fen), result);
+    }
+
+    private static double parseResult(final String result) {
+        switch (result) {
+            case "1-0":
+            case "[1.0]":
+                return 1.0;
+            case "0-1":
+            case "[0.0]":
+                return 0.0;
+            case "1/2-1/2":
+            case "[0.5]":
+                return 0.5;
+            default:
+                return Double.NaN;
+        }
+    }
+
+    private static final class Entry {
+
+        private final int baseScore;
+        private final short[] coefficients;
+        private final byte result;
+
+        private Entry(final int baseScore,
+                      final short[] coefficients,
+                      final byte result) {
+            this.baseScore = baseScore;
+            this.coefficients = coefficients;
+            this.result = result;
+        }
+    }
+
+    private static final class ParseTask extends RecursiveAction {
+
+        private final List<String> lines;
+        private final Entry[] entries;
+        private final int from;
+        private final int to;
+
+        private ParseTask(final List<String> lines,
+                          final Entry[] entries,
+                          final int from,
+                          final int to) {
+            this.lines = lines;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            //een FEN uitlezen kost veel meer dan een term, dus kleinere blokken
+            if (this.to - this.from <= THRESHOLD / 16) {
+                for (int line = this.from; line < this.to; line++) {
+                    this.entries[line] = parseEpd(this.lines.get(line));
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(new ParseTask(this.lines, this.entries, this.from, middle),
+                    new ParseTask(this.lines, this.entries, middle, this.to));
+        }
+    }
+
+    private final class LossTask extends RecursiveTask<Double> {
+
+        private final int[] weights;
+        private final int from;
+        private final int to;
+
+        private LossTask(final int[] weights,
+                         final int from,
+                         final int to) {
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Double compute() {
+            if (this.to - this.from <= THRESHOLD) {
+                return sum();
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            final LossTask left = new LossTask(this.weights, this.from, middle);
+            left.fork();
+            final double right = new LossTask(this.weights, middle, this.to).compute();
+            return left.join() + right;
+        }
+
+        private double sum() {
+            final int numTerms = this.weights.length;
+            final double scale = -scalingConstant / 400.0;
+            double sum = 0;
+            for (int position = this.from; position < this.to; position++) {
+                int score = baseScores[position];
+                final int offset = position * numTerms;
+                for (int term = 0; term < numTerms; term++) {
+                    score += this.weights[term] * coefficients[offset + term];
+                }
+                final double error = results[position] / 2.0 - 1.0 / (1.0 + Math.pow(10.0, scale * score));
+                sum += error * error;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.board.BoardUtils;
+
+/*
+ * Zet een stelling om naar een index in de tabel. Zonder pionnen is het bord acht keer symmetrisch (spiegelen in
+ * lijnen, rijen en de diagonaal), daarom staat de witte koning altijd in de driehoek a1-d1-d4. De index is
+ * koningsveld * 64^(n-1) + de velden van de overige stukken in basis 64. Van alle symmetrieen die de koning in de
+ * driehoek zetten wordt de kleinste index genomen, zodat elke stelling precies een canonieke index heeft.
+ */
+enum PositionIndexer {
+
+    INSTANCE;
+
+    static final int NUM_KING_SQUARES = 10;
+
+    private static final int NUM_TRANSFORMS = 8;
+    private static final int[][] TRANSFORMS = createTransforms();
+    private static final int[] KING_SQUARE_INDEX = new int[BoardUtils.NUM_TILES];
+    private static final int[] KING_SQUARES = new int[NUM_KING_SQUARES];
+
+    static {
+        int next = 0;
+        for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+            final int file = square % 8;
+            final int rank = 7 - square / 8;
+            if (file <= 3 && rank <= file) {
+                KING_SQUARE_INDEX[square] = next;
+                KING_SQUARES[next++] = square;
+            } else {
+                KING_SQUARE_INDEX[square] = -1;
+            }
+        }
+    }
+
+    static int size(final int numPieces) {
+        int size = NUM_KING_SQUARES;
+        for (int i = 1; i < numPieces; i++) {
+            size *= BoardUtils.NUM_TILES;
+        }
+        return size;
+    }
+
+    static int index(final Signature signature,
+                     final int[] squares) {
+        final int numPieces = signature.numPieces();
+        final int[] transformed = new int[numPieces];
+        int best = Integer.MAX_VALUE;
+        for (int t = 0; t < NUM_TRANSFORMS; t++) {
+            final int kingSquare = KING_SQUARE_INDEX[TRANSFORMS[t][squares[0]]];
+            if (kingSquare < 0) {
+                continue;
+            }
+            for (int i = 1; i < numPieces; i++) {
+                transformed[i] = TRANSFORMS[t][squares[i]];
+            }
+            sortIdenticalPieces(signature, transformed);
+            int index = kingSquare;
+            for (int i = 1; i < numPieces; i++) {
+                index = index * BoardUtils.NUM_TILES + transformed[i];
+            }
+            best = Math.min(best, index);
+        }
+        return best;
+    }
+
+    static void decode(final int numPieces,
+                       int index,
+                       final int[] squares) {
+        for (int i = numPieces - 1; i > 0; i--) {
+            squares[i] = index % BoardUtils.NUM_TILES;
+            index /= BoardUtils.NUM_TILES;
+        }
+        squares[0] = KING_SQUARES[index];
+    }
+
+    //gelijke stukken (bijvoorbeeld twee paarden) worden op veldnummer gesorteerd
+    private static void sortIdenticalPieces(final Signature signature,
+                                            final int[] squares) {
+        for (int i = 3; i < squares.length; i++) {
+            for (int j = i; j > 2 && signature.isIdentical(j, j - 1) && squares[j] < squares[j - 1]; j--) {
+                final int square = squares[j];
+                squares[j] = squares[j - 1];
+                squares[j - 1] = square;
+            }
+        }
+    }
+
+    private static int[][] createTransforms() {
+        final int[][] transforms = new int[NUM_TRANSFORMS][BoardUtils.NUM_TILES];
+        for (int t = 0; t < NUM_TRANSFORMS; t++) {
+            for (int square = 0; square < BoardUtils.NUM_TILES; square++) {
+                int row = square / 8;
+                int column = square % 8;
+                if ((t & 4) != 0) {
+                    final int swap = row;
+                    row = column;
+                    column = swap;
+                }
+                if ((t & 1) != 0) {
+                    column = 7 - column;
+                }
+                if ((t & 2) != 0) {
+                    row = 7 - row;
+                }
+                transforms[t][square] = row * 8 + column;
+            }
+        }
+        return transforms;
+    }
+}
@@ -0,0 +1,161 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Materiaalverdeling van een tabel, bijvoorbeeld "KRKB": de stukken van wit, dan die van zwart, elk beginnend met de koning.
+ * In de tabel staan de stukken altijd in dezelfde volgorde: witte koning, zwarte koning, de overige witte stukken en
+ * daarna de overige zwarte stukken, elk in de volgorde dame, toren, loper, paard.
+ */
+final class Signature {
+
+    private static final PieceType[] ORDER = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+    private final String name;
+    private final PieceType[] types;
+    private final boolean[] white;
+
+    private Signature(final String name,
+                      final List<PieceType> whiteExtras,
+                      final List<PieceType> blackExtras) {
+        this.name = name;
+        final int numPieces = 2 + whiteExtras.size() + blackExtras.size();
+        this.types = new PieceType[numPieces];
+        this.white = new boolean[numPieces];
+        this.types[0] = PieceType.KING;
+        this.white[0] = true;
+        this.types[1] = PieceType.KING;
+        this.white[1] = false;
+        int i = 2;
+        for (final PieceType type : whiteExtras) {
+            this.types[i] = type;
+            this.white[i++] = true;
+        }
+        for (final PieceType type : blackExtras) {
+            this.types[i] = type;
+            this.white[i++] = false;
+        }
+    }
+
+    static Signature parse(final String name) {
+        final int blackKing = name.indexOf('K', 1);
+        if (!name.startsWith("K") || blackKing < 0) {
+            throw new IllegalArgumentException("invalid tablebase signature: " + name);
+        }
+        final List<PieceType> whiteExtras = parseExtras(name.substring(1, blackKing), name);
+        final List<PieceType> blackExtras = parseExtras(name.substring(blackKing + 1), name);
+        if (!canonicalName(whiteExtras, blackExtras).equals(name)) {
+            throw new IllegalArgumentException("tablebase signature is not in canonical order: " + name +
+                    ", use " + canonicalName(whiteExtras, blackExtras));
+        }
+        return new Signature(name, whiteExtras, blackExtras);
+    }
+
+    //de sterkste kant staat altijd als wit in de tabel, zodat elke materiaalverdeling maar een bestand heeft
+    static String canonicalName(final List<PieceType> whiteExtras,
+                                final List<PieceType> blackExtras) {
+        final String whiteName = extrasName(whiteExtras);
+        final String blackName = extrasName(blackExtras);
+        final int whiteValue = materialValue(whiteExtras);
+        final int blackValue = materialValue(blackExtras);
+        if (whiteValue > blackValue || (whiteValue == blackValue && orderKey(whiteName).compareTo(orderKey(blackName)) <= 0)) {
+            return "K" + whiteName + "K" + blackName;
+        }
+        return "K" + blackName + "K" + whiteName;
+    }
+
+    static int orderIndex(final PieceType type) {
+        for (int i = 0; i < ORDER.length; i++) {
+            if (ORDER[i] == type) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("no tablebase support for " + type);
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    int numPieces() {
+        return this.types.length;
+    }
+
+    PieceType getType(final int piece) {
+        return this.types[piece];
+    }
+
+    boolean isWhite(final int piece) {
+        return this.white[piece];
+    }
+
+    //twee gelijke stukken van dezelfde kleur zijn onderling verwisselbaar
+    boolean isIdentical(final int piece,
+                        final int otherPiece) {
+        return this.types[piece] == this.types[otherPiece] && this.white[piece] == this.white[otherPiece];
+    }
+
+    //de tabel die na het slaan van dit stuk nodig is
+    String withoutPiece(final int piece) {
+        final List<PieceType> whiteExtras = new ArrayList<>();
+        final List<PieceType> blackExtras = new ArrayList<>();
+        for (int i = 2; i < this.types.length; i++) {
+            if (i != piece) {
+                (this.white[i] ? whiteExtras : blackExtras).add(this.types[i]);
+            }
+        }
+        return canonicalName(whiteExtras, blackExtras);
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+
+    private static List<PieceType> parseExtras(final String extras,
+                                               final String name) {
+        final List<PieceType> types = new ArrayList<>();
+        for (final char c : extras.toCharArray()) {
+            PieceType type = null;
+            for (final PieceType candidate : ORDER) {
+                if (candidate.toString().charAt(0) == c) {
+                    type = candidate;
+                }
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("invalid tablebase signature: " + name);
+            }
+            types.add(type);
+        }
+        return types;
+    }
+
+    static String extrasName(final List<PieceType> extras) {
+        final List<PieceType> sorted = new ArrayList<>(extras);
+        sorted.sort((a, b) -> Integer.compare(orderIndex(a), orderIndex(b)));
+        final StringBuilder builder = new StringBuilder();
+        for (final PieceType type : sorted) {
+            builder.append(type.toString());
+        }
+        return builder.toString();
+    }
+
+    private static int materialValue(final List<PieceType> extras) {
+        int value = 0;
+        for (final PieceType type : extras) {
+            value += type.getPieceValue();
+        }
+        return value;
+    }
+
+    private static String orderKey(final String extrasName) {
+        final StringBuilder builder = new StringBuilder();
+        for (final char c : extrasName.toCharArray()) {
+            builder.append("QRBN".indexOf(c));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.chess.engine.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * Een tabel voor een materiaalverdeling, bestaande uit twee bestanden:
+ * - <signature>.dtm: een byte per stelling, het aantal plies tot mat voor de speler aan zet. Oneven is winst,
+ *   even is verlies (0 is mat op het bord), DRAW is remise en ILLEGAL een onmogelijke of niet-canonieke stelling.
+ * - <signature>.wdl: twee bits per stelling (verlies, remise, winst, illegaal), vier keer kleiner voor het zoeken.
+ * Beide beginnen met een header (magic, versie, aantal stellingen per kant); eerst staan alle stellingen met wit aan
+ * zet, dan die met zwart aan zet. De bestanden worden alleen-lezen in het geheugen gemapt.
+ */
+final class Tablebase {
+
+    static final int MAX_DTM = 252;
+    static final int ILLEGAL = 254;
+    static final int DRAW = 255;
+    static final int WDL_LOSS = 0;
+    static final int WDL_DRAW = 1;
+    static final int WDL_WIN = 2;
+    static final int WDL_ILLEGAL = 3;
+    static final String DTM_EXTENSION = ".dtm";
+    static final String WDL_EXTENSION = ".wdl";
+
+    private static final int MAGIC = 0x4A435442;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private final Signature signature;
+    private final int size;
+    private final MappedByteBuffer dtm;
+    private final MappedByteBuffer wdl;
+
+    private Tablebase(final Signature signature,
+                      final MappedByteBuffer dtm,
+                      final MappedByteBuffer wdl) {
+        this.signature = signature;
+        this.size = PositionIndexer.size(signature.numPieces());
+        this.dtm = dtm;
+        this.wdl = wdl;
+    }
+
+    static Tablebase open(final Path directory,
+                          final String signatureName) throws IOException {
+        final Signature signature = Signature.parse(signatureName);
+        final int size = PositionIndexer.size(signature.numPieces());
+        return new Tablebase(signature,
+                map(directory.resolve(signatureName + DTM_EXTENSION), 2 * size),
+                map(directory.resolve(signatureName + WDL_EXTENSION), (2 * size + 3) / 4));
+    }
+
+    Signature getSignature() {
+        return this.signature;
+    }
+
+    int dtm(final int index,
+            final boolean whiteToMove) {
+        return this.dtm.get(HEADER_SIZE + entry(index, whiteToMove)) & 0xFF;
+    }
+
+    int wdl(final int index,
+            final boolean whiteToMove) {
+        final int entry = entry(index, whiteToMove);
+        return (this.wdl.get(HEADER_SIZE + entry / 4) >>> (2 * (entry % 4))) & 3;
+    }
+
+    static void write(final Path directory,
+                      final String signatureName,
+                      final byte[] values) throws IOException {
+        final byte[] wdl = new byte[(values.length + 3) / 4];
+        for (int entry = 0; entry < values.length; entry++) {
+            wdl[entry / 4] |= toWdl(values[entry] & 0xFF) << (2 * (entry % 4));
+        }
+        Files.createDirectories(directory);
+        writeFile(directory.resolve(signatureName + DTM_EXTENSION), values.length / 2, values);
+        writeFile(directory.resolve(signatureName + WDL_EXTENSION), values.length / 2, wdl);
+    }
+
+    static byte[] readValues(final Path directory,
+                             final String signatureName) throws IOException {
+        final byte[] file = Files.readAllBytes(directory.resolve(signatureName + DTM_EXTENSION));
+        final byte[] values = new byte[file.length - HEADER_SIZE];
+        System.arraycopy(file, HEADER_SIZE, values, 0, values.length);
+        return values;
+    }
+
+    static int toWdl(final int dtm) {
+        if (dtm == ILLEGAL) {
+            return WDL_ILLEGAL;
+        }
+        if (dtm == DRAW) {
+            return WDL_DRAW;
+        }
+        return dtm % 2 == 1 ? WDL_WIN : WDL_LOSS;
+    }
+
+    private int entry(final int index,
+                      final boolean whiteToMove) {
+        return whiteToMove ? index : this.size + index;
+    }
+
+    private static void writeFile(final Path path,
+                                  final int entriesPerSide,
+                                  final byte[] data) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(entriesPerSide);
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            header.flip();
+            channel.write(header);
+            channel.write(ByteBuffer.wrap(data));
+        }
+    }
+
+    private static MappedByteBuffer map(final Path path,
+                                        final int dataSize) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() != HEADER_SIZE + dataSize || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("corrupt or incompatible tablebase file: " + path);
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoardUtils;
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Genereert eindspeltabellen zonder pionnen met retrograde analyse. Eerst wordt elke stelling een keer vooruit
+ * doorgerekend: matstellingen, patstellingen en slagzetten (die naar een kleinere, al gegenereerde tabel gaan) worden
+ * direct bepaald en per stelling wordt het aantal verschillende stille vervolgstellingen geteld. Daarna wordt ply
+ * voor ply teruggerekend: een voorganger van een verloren stelling is gewonnen, een voorganger waarvan alle stille
+ * vervolgstellingen gewonnen zijn voor de tegenstander is verloren. Wat overblijft is remise.
+ *
+ * Gebruik: TablebaseGenerator <directory> [signature...], zonder signatures worden alle 3- en 4-stukkentabellen gemaakt.
+ */
+public final class TablebaseGenerator {
+
+    public static final String[] DEFAULT_SIGNATURES = {
+            "KQK", "KRK", "KBK", "KNK",
+            "KQQK", "KQRK", "KQBK", "KQNK", "KRRK", "KRBK", "KRNK", "KBBK", "KBNK", "KNNK",
+            "KQKQ", "KQKR", "KQKB", "KQKN", "KRKR", "KRKB", "KRKN", "KBKB", "KBKN", "KNKN"
+    };
+
+    private static final String NO_PIECES = "KK";
+    private static final int UNKNOWN = 253;
+    private static final int NONE = 0xFF;
+    private static final int MAX_SUCCESSORS = 128;
+
+    private final Path directory;
+    private final Map<String, byte[]> tables;
+
+    public TablebaseGenerator(final Path directory) {
+        this.directory = directory;
+        this.tables = new HashMap<>();
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: TablebaseGenerator <directory> [signature...]");
+            return;
+        }
+        final TablebaseGenerator generator = new TablebaseGenerator(Paths.get(args[0]));
+        final String[] signatures = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : DEFAULT_SIGNATURES;
+        for (final String signature : signatures) {
+            //de tijd is inclusief de kleinere tabellen die nog ontbraken
+            final long startTime = System.currentTimeMillis();
+            generator.generate(signature);
+            System.out.println(signature + " generated in " + (System.currentTimeMillis() - startTime) + " ms");
+        }
+    }
+
+    //genereert de tabel en alle kleinere tabellen waar hij van afhangt; bestaande bestanden worden hergebruikt
+    public void generate(final String signatureName) throws IOException {
+        if (this.tables.containsKey(signatureName) || NO_PIECES.equals(signatureName)) {
+            return;
+        }
+        final Signature signature = Signature.parse(signatureName);
+        if (Files.exists(this.directory.resolve(signatureName + Tablebase.DTM_EXTENSION))) {
+            this.tables.put(signatureName, Tablebase.readValues(this.directory, signatureName));
+            return;
+        }
+        for (int piece = 2; piece < signature.numPieces(); piece++) {
+            generate(signature.withoutPiece(piece));
+        }
+        final byte[] values = new Generation(signature).run();
+        Tablebase.write(this.directory, signatureName, values);
+        this.tables.put(signatureName, values);
+    }
+
+    //waarde van een stelling na een slagzet, uit de tabel met een stuk minder
+    private int probeSmallerTable(final PieceType[] types,
+                                  final boolean[] white,
+                                  final int[] squares,
+                                  final int numPieces,
+                                  final boolean whiteToMove) {
+        final TablebasePosition position = TablebasePosition.of(types, white, squares, numPieces, whiteToMove);
+        if (NO_PIECES.equals(position.getSignatureName())) {
+            return Tablebase.DRAW;
+        }
+        final Signature signature = Signature.parse(position.getSignatureName());
+        final int size = PositionIndexer.size(signature.numPieces());
+        final int index = PositionIndexer.index(signature, position.getSquares());
+        return this.tables.get(position.getSignatureName())[(position.isWhiteToMove() ? 0 : size) + index] & 0xFF;
+    }
+
+    private final class Generation {
+
+        private final Signature signature;
+        private final int numPieces;
+        private final int size;
+        private final byte[] values;
+        private final byte[] counters;
+        private final byte[] captureWins;
+        private final byte[] captureLosses;
+        private final boolean[] drawingCaptures;
+        private final PieceType[] types;
+        private final boolean[] white;
+        private final int[] squares;
+        private final int[] successors;
+        private int maxLevel;
+
+        private Generation(final Signature signature) {
+            this.signature = signature;
+            this.numPieces = signature.numPieces();
+            this.size = PositionIndexer.size(this.numPieces);
+            this.values = new byte[2 * this.size];
+            this.counters = new byte[2 * this.size];
+            this.captureWins = new byte[2 * this.size];
+            this.captureLosses = new byte[2 * this.size];
+            this.drawingCaptures = new boolean[2 * this.size];
+            this.types = new PieceType[this.numPieces];
+            this.white = new boolean[this.numPieces];
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                this.types[piece] = signature.getType(piece);
+                this.white[piece] = signature.isWhite(piece);
+            }
+            this.squares = new int[this.numPieces];
+            this.successors = new int[MAX_SUCCESSORS];
+            this.maxLevel = 0;
+        }
+
+        private byte[] run() {
+            Arrays.fill(this.captureWins, (byte) NONE);
+            Arrays.fill(this.captureLosses, (byte) NONE);
+            for (int entry = 0; entry < this.values.length; entry++) {
+                initialise(entry);
+            }
+            for (int level = 0; level <= this.maxLevel; level++) {
+                if (level > Tablebase.MAX_DTM) {
+                    throw new IllegalStateException(this.signature + ": distance to mate exceeds " + Tablebase.MAX_DTM);
+                }
+                for (int entry = 0; entry < this.values.length; entry++) {
+                    if (value(entry) == UNKNOWN && (this.captureWins[entry] & 0xFF) == level) {
+                        this.values[entry] = (byte) level;
+                    }
+                    if (value(entry) == level) {
+                        propagate(entry, level);
+                    }
+                }
+            }
+            for (int entry = 0; entry < this.values.length; entry++) {
+                if (value(entry) == UNKNOWN) {
+                    this.values[entry] = (byte) Tablebase.DRAW;
+                }
+            }
+            return this.values;
+        }
+
+        private void initialise(final int entry) {
+            final boolean whiteToMove = entry < this.size;
+            final int index = entry % this.size;
+            PositionIndexer.decode(this.numPieces, index, this.squares);
+            if (!isValid() || PositionIndexer.index(this.signature, this.squares) != index ||
+                    isKingAttacked(!whiteToMove, -1, occupancy())) {
+                this.values[entry] = (byte) Tablebase.ILLEGAL;
+                return;
+            }
+            int numSuccessors = 0;
+            boolean hasLegalMove = false;
+            int captureWin = NONE;
+            int captureLoss = -1;
+            final long occupancy = occupancy();
+            final long ownOccupancy = occupancy(whiteToMove);
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (this.white[piece] != whiteToMove) {
+                    continue;
+                }
+                final int from = this.squares[piece];
+                long targets = BitBoardUtils.attacks(this.types[piece], alliance(whiteToMove), from, occupancy) & ~ownOccupancy;
+                while (targets != 0) {
+                    final int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    final int captured = pieceAt(to);
+                    this.squares[piece] = to;
+                    final long afterMove = (occupancy & ~BitBoardUtils.squareMask(from)) | BitBoardUtils.squareMask(to);
+                    if (!isKingAttacked(whiteToMove, captured, afterMove)) {
+                        hasLegalMove = true;
+                        if (captured < 0) {
+                            numSuccessors = addSuccessor(numSuccessors, PositionIndexer.index(this.signature, this.squares));
+                        } else {
+                            final int value = probeCapture(captured, !whiteToMove);
+                            if (value == Tablebase.DRAW) {
+                                this.drawingCaptures[entry] = true;
+                            } else if (value % 2 == 0) {
+                                captureWin = Math.min(captureWin, value + 1);
+                            } else {
+                                captureLoss = Math.max(captureLoss, value);
+                            }
+                        }
+                    }
+                    this.squares[piece] = from;
+                }
+            }
+            this.counters[entry] = (byte) numSuccessors;
+            this.captureWins[entry] = (byte) captureWin;
+            this.captureLosses[entry] = (byte) (captureLoss < 0 ? NONE : captureLoss);
+            if (!hasLegalMove) {
+                this.values[entry] = (byte) (isKingAttacked(whiteToMove, -1, occupancy) ? 0 : Tablebase.DRAW);
+            } else if (numSuccessors == 0 && captureWin != NONE) {
+                setLevel(entry, captureWin);
+            } else if (numSuccessors == 0 && this.drawingCaptures[entry]) {
+                this.values[entry] = (byte) Tablebase.DRAW;
+            } else if (numSuccessors == 0) {
+                setLevel(entry, captureLoss + 1);
+            } else {
+                this.values[entry] = (byte) UNKNOWN;
+                if (captureWin != NONE) {
+                    this.maxLevel = Math.max(this.maxLevel, captureWin);
+                }
+            }
+        }
+
+        //alle stellingen waaruit de andere kleur met een stille zet in deze stelling terecht kan komen
+        private void propagate(final int entry,
+                               final int level) {
+            final boolean whiteToMove = entry < this.size;
+            PositionIndexer.decode(this.numPieces, entry % this.size, this.squares);
+            final long occupancy = occupancy();
+            int numPredecessors = 0;
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (this.white[piece] == whiteToMove) {
+                    continue;
+                }
+                final int to = this.squares[piece];
+                long origins = BitBoardUtils.attacks(this.types[piece], alliance(!whiteToMove), to, occupancy) & ~occupancy;
+                while (origins != 0) {
+                    this.squares[piece] = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    numPredecessors = addSuccessor(numPredecessors, PositionIndexer.index(this.signature, this.squares));
+                }
+                this.squares[piece] = to;
+            }
+            final int offset = whiteToMove ? this.size : 0;
+            for (int i = 0; i < numPredecessors; i++) {
+                final int predecessor = offset + this.successors[i];
+                if (value(predecessor) != UNKNOWN) {
+                    continue;
+                }
+                if (level % 2 == 0) {
+                    setLevel(predecessor, level + 1);
+                } else if (--this.counters[predecessor] == 0 && (this.captureWins[predecessor] & 0xFF) == NONE &&
+                        !this.drawingCaptures[predecessor]) {
+                    final int captureLoss = this.captureLosses[predecessor] & 0xFF;
+                    setLevel(predecessor, captureLoss == NONE ? level + 1 : Math.max(level + 1, captureLoss + 1));
+                }
+            }
+        }
+
+        private void setLevel(final int entry,
+                              final int level) {
+            this.values[entry] = (byte) level;
+            this.maxLevel = Math.max(this.maxLevel, level);
+        }
+
+        //dezelfde stelling kan via verschillende zetten bereikt worden en telt maar een keer
+        private int addSuccessor(final int numSuccessors,
+                                 final int index) {
+            for (int i = 0; i < numSuccessors; i++) {
+                if (this.successors[i] == index) {
+                    return numSuccessors;
+                }
+            }
+            this.successors[numSuccessors] = index;
+            return numSuccessors + 1;
+        }
+
+        private int probeCapture(final int captured,
+                                 final boolean whiteToMove) {
+            final PieceType[] remainingTypes = new PieceType[this.numPieces - 1];
+            final boolean[] remainingWhite = new boolean[this.numPieces - 1];
+            final int[] remainingSquares = new int[this.numPieces - 1];
+            int next = 0;
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (piece != captured) {
+                    remainingTypes[next] = this.types[piece];
+                    remainingWhite[next] = this.white[piece];
+                    remainingSquares[next++] = this.squares[piece];
+                }
+            }
+            return probeSmallerTable(remainingTypes, remainingWhite, remainingSquares, next, whiteToMove);
+        }
+
+        private boolean isValid() {
+            final long occupancy = occupancy();
+            return Long.bitCount(occupancy) == this.numPieces &&
+                    (BitBoardUtils.kingAttacks(this.squares[0]) & BitBoardUtils.squareMask(this.squares[1])) == 0;
+        }
+
+        //staat de koning van de gegeven kleur aangevallen, waarbij het geslagen stuk niet meer meedoet
+        private boolean isKingAttacked(final boolean whiteKing,
+                                       final int captured,
+                                       final long occupancy) {
+            final int kingSquare = this.squares[whiteKing ? 0 : 1];
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (piece != captured && this.white[piece] != whiteKing &&
+                        (BitBoardUtils.attacks(this.types[piece], alliance(!whiteKing), this.squares[piece], occupancy) &
+                                BitBoardUtils.squareMask(kingSquare)) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int pieceAt(final int square) {
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (this.squares[piece] == square) {
+                    return piece;
+                }
+            }
+            return -1;
+        }
+
+        private long occupancy() {
+            long occupancy = BitBoardUtils.EMPTY;
+            for (final int square : this.squares) {
+                occupancy |= BitBoardUtils.squareMask(square);
+            }
+            return occupancy;
+        }
+
+        private long occupancy(final boolean whitePieces) {
+            long occupancy = BitBoardUtils.EMPTY;
+            for (int piece = 0; piece < this.numPieces; piece++) {
+                if (this.white[piece] == whitePieces) {
+                    occupancy |= BitBoardUtils.squareMask(this.squares[piece]);
+                }
+            }
+            return occupancy;
+        }
+
+        private int value(final int entry) {
+            return this.values[entry] & 0xFF;
+        }
+    }
+
+    private static Alliance alliance(final boolean white) {
+        return white ? Alliance.WHITE : Alliance.BLACK;
+    }
+}
@@ -0,0 +1,80 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.pieces.Piece.PieceType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Een stelling in de volgorde van de tabel waarin hij opgezocht moet worden. Als de materiaalverdeling in de tabel
+ * andersom staat (de sterkste kant is zwart), worden de kleuren verwisseld en het bord verticaal gespiegeld; de
+ * uitkomst voor de speler aan zet verandert daar niet door.
+ */
+final class TablebasePosition {
+
+    private static final int MIRROR_RANKS = 56;
+
+    private final String signatureName;
+    private final int[] squares;
+    private final boolean whiteToMove;
+
+    private TablebasePosition(final String signatureName,
+                              final int[] squares,
+                              final boolean whiteToMove) {
+        this.signatureName = signatureName;
+        this.squares = squares;
+        this.whiteToMove = whiteToMove;
+    }
+
+    //types, white en squares beschrijven de stukken in willekeurige volgorde, met precies een koning per kant
+    static TablebasePosition of(final PieceType[] types,
+                                final boolean[] white,
+                                final int[] squares,
+                                final int numPieces,
+                                final boolean whiteToMove) {
+        final List<PieceType> whiteExtras = new ArrayList<>();
+        final List<PieceType> blackExtras = new ArrayList<>();
+        for (int i = 0; i < numPieces; i++) {
+            if (types[i] != PieceType.KING) {
+                (white[i] ? whiteExtras : blackExtras).add(types[i]);
+            }
+        }
+        final String signatureName = Signature.canonicalName(whiteExtras, blackExtras);
+        final boolean strongSideWhite = signatureName.equals(
+                "K" + Signature.extrasName(whiteExtras) + "K" + Signature.extrasName(blackExtras));
+        final int[] ordered = new int[numPieces];
+        int next = 2;
+        for (final boolean side : new boolean[]{strongSideWhite, !strongSideWhite}) {
+            for (int order = 0; order < 4; order++) {
+                for (int i = 0; i < numPieces; i++) {
+                    if (white[i] == side && types[i] != PieceType.KING && Signature.orderIndex(types[i]) == order) {
+                        ordered[next++] = mirror(squares[i], strongSideWhite);
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < numPieces; i++) {
+            if (types[i] == PieceType.KING) {
+                ordered[white[i] == strongSideWhite ? 0 : 1] = mirror(squares[i], strongSideWhite);
+            }
+        }
+        return new TablebasePosition(signatureName, ordered, strongSideWhite == whiteToMove);
+    }
+
+    String getSignatureName() {
+        return this.signatureName;
+    }
+
+    int[] getSquares() {
+        return this.squares;
+    }
+
+    boolean isWhiteToMove() {
+        return this.whiteToMove;
+    }
+
+    private static int mirror(final int square,
+                              final boolean strongSideWhite) {
+        return strongSideWhite ? square : square ^ MIRROR_RANKS;
+    }
+}
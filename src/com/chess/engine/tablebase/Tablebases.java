@@ -0,0 +1,201 @@
+package com.chess.engine.tablebase;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.Move;
+import com.chess.engine.pieces.Piece;
+import com.chess.engine.pieces.Piece.PieceType;
+import com.chess.engine.player.MoveTransition;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Toegang tot de gegenereerde eindspeltabellen vanuit een Board. Alleen stellingen zonder pionnen met maximaal
+ * MAX_PIECES stukken kunnen opgezocht worden; rokaderechten worden genegeerd. Bij het starten worden de tabellen uit
+ * de directory in de system property "jchess.tablebases" geladen als die gezet is; een fout daarbij is op te vragen
+ * met getLoadFailure(). Zolang er geen tabel geladen is, geeft elke opzoeking UNKNOWN.
+ */
+public enum Tablebases {
+    INSTANCE;
+
+    public static final int MAX_PIECES = 4;
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final String DIRECTORY_PROPERTY = "jchess.tablebases";
+
+    private final Map<String, Tablebase> tables = new ConcurrentHashMap<>();
+    private final IOException loadFailure;
+
+    Tablebases() {
+        this.loadFailure = loadFromProperty();
+    }
+
+    private IOException loadFromProperty() {
+        final String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory != null) {
+            try {
+                load(Paths.get(directory));
+            } catch (final IOException e) {
+                return new IOException("could not load tablebases from " + directory, e);
+            }
+        }
+        return null;
+    }
+
+    //laadt alle tabellen in de directory, tabellen met dezelfde naam worden vervangen
+    public void load(final Path directory) throws IOException {
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Tablebase.DTM_EXTENSION)) {
+            for (final Path file : files) {
+                final String fileName = file.getFileName().toString();
+                final String signatureName = fileName.substring(0, fileName.length() - Tablebase.DTM_EXTENSION.length());
+                this.tables.put(signatureName, Tablebase.open(directory, signatureName));
+            }
+        }
+    }
+
+    public void clear() {
+        this.tables.clear();
+    }
+
+    public boolean isAvailable() {
+        return !this.tables.isEmpty();
+    }
+
+    //de fout bij het laden uit de system property bij het starten, of null als dat gelukt of niet gevraagd is
+    public IOException getLoadFailure() {
+        return this.loadFailure;
+    }
+
+    //winst, remise of verlies voor de speler aan zet, of UNKNOWN als de stelling niet in een geladen tabel staat
+    public int probeWdl(final Board board) {
+        if (!isAvailable()) {
+            return UNKNOWN;
+        }
+        if (board.getWhitePieces().size() + board.getBlackPieces().size() == 2) {
+            return DRAW;
+        }
+        final Probe probe = probe(board);
+        if (probe == null) {
+            return UNKNOWN;
+        }
+        switch (probe.table.wdl(probe.index, probe.whiteToMove)) {
+            case Tablebase.WDL_WIN:
+                return WIN;
+            case Tablebase.WDL_LOSS:
+                return LOSS;
+            case Tablebase.WDL_DRAW:
+                return DRAW;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    //plies tot mat, positief als de speler aan zet wint en negatief als hij verliest; 0 is remise of mat op het bord
+    public int probeDtm(final Board board) {
+        if (!isAvailable()) {
+            return UNKNOWN;
+        }
+        if (board.getWhitePieces().size() + board.getBlackPieces().size() == 2) {
+            return 0;
+        }
+        final Probe probe = probe(board);
+        if (probe == null) {
+            return UNKNOWN;
+        }
+        final int dtm = probe.table.dtm(probe.index, probe.whiteToMove);
+        if (dtm == Tablebase.DRAW) {
+            return 0;
+        }
+        if (dtm == Tablebase.ILLEGAL) {
+            return UNKNOWN;
+        }
+        return dtm % 2 == 1 ? dtm : -dtm;
+    }
+
+    //de zet die het snelst wint, remise houdt of het langst verdedigt; null als de stelling niet opgezocht kan worden
+    public Move bestMove(final Board board) {
+        if (probeDtm(board) == UNKNOWN) {
+            return null;
+        }
+        Move bestMove = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition moveTransition = board.currentPlayer().makeMove(move);
+            if (!moveTransition.getMoveStatus().isDone()) {
+                continue;
+            }
+            final Board toBoard = moveTransition.getToBoard();
+            final int score = moveScore(toBoard, probeDtm(toBoard));
+            if (score == UNKNOWN) {
+                return null;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    //vanuit de speler die de zet doet: snelle winst hoog, remise 0, lang verdedigen beter dan snel verliezen
+    private static int moveScore(final Board toBoard,
+                                 final int opponentDtm) {
+        if (opponentDtm == UNKNOWN) {
+            return UNKNOWN;
+        }
+        if (opponentDtm < 0 || (opponentDtm == 0 && toBoard.currentPlayer().isInCheckMate())) {
+            return Tablebase.DRAW + opponentDtm;
+        }
+        if (opponentDtm == 0) {
+            return 0;
+        }
+        return opponentDtm - Tablebase.DRAW;
+    }
+
+    private Probe probe(final Board board) {
+        final int numPieces = board.getWhitePieces().size() + board.getBlackPieces().size();
+        if (numPieces > MAX_PIECES || board.getPieceBitBoard(PieceType.PAWN) != 0) {
+            return null;
+        }
+        final PieceType[] types = new PieceType[numPieces];
+        final boolean[] white = new boolean[numPieces];
+        final int[] squares = new int[numPieces];
+        int next = 0;
+        for (final Piece piece : board.getAllPieces()) {
+            types[next] = piece.getPieceType();
+            white[next] = piece.getPieceAlliance().isWhite();
+            squares[next++] = piece.getPiecePosition();
+        }
+        final TablebasePosition position = TablebasePosition.of(types, white, squares, numPieces,
+                board.currentPlayer().getAlliance().isWhite());
+        final Tablebase table = this.tables.get(position.getSignatureName());
+        if (table == null) {
+            return null;
+        }
+        return new Probe(table, PositionIndexer.index(table.getSignature(), position.getSquares()),
+                position.isWhiteToMove());
+    }
+
+    private static final class Probe {
+
+        private final Tablebase table;
+        private final int index;
+        private final boolean whiteToMove;
+
+        private Probe(final Tablebase table,
+                      final int index,
+                      final boolean whiteToMove) {
+            this.table = table;
+            this.index = index;
+            this.whiteToMove = whiteToMove;
+        }
+    }
+}
@@ -45,7 +45,6 @@ public class FenUtilities {
                 .replaceAll("1", "-")
                 .toCharArray();
         int i = 0;
-        System.out.println(boardTiles);
         while (i < boardTiles.length) {
             switch (boardTiles[i]) {
                 case 'r':
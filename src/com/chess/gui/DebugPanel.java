@@ -1,11 +1,13 @@
 package com.chess.gui;
 
+        import com.chess.engine.player.ai.SearchInfo;
+        import com.chess.engine.player.ai.SearchListener;
+        import com.chess.engine.player.ai.SearchResult;
+
         import javax.swing.*;
         import java.awt.*;
-        import java.util.Observable;
-        import java.util.Observer;
 
-class DebugPanel extends JPanel implements Observer {
+class DebugPanel extends JPanel implements SearchListener {
     private static final Dimension CHAT_PANEL_DIMENSION = new Dimension(600, 150);
     private final JTextArea jTextArea;
 
@@ -22,10 +24,20 @@ class DebugPanel extends JPanel implements Observer {
         validate();
     }
 
+    //de zoekopdracht draait op een achtergrondthread, de tekst wordt op de event dispatch thread gezet
+    @Override
+    public void searchInfo(final SearchInfo searchInfo) {
+        SwingUtilities.invokeLater(() -> {
+            this.jTextArea.setText(searchInfo.toString());
+            redo();
+        });
+    }
+
     @Override
-    public void update(final Observable obs,
-                       final Object obj) {
-        this.jTextArea.setText(obj.toString().trim());
-        redo();
+    public void searchFinished(final SearchResult searchResult) {
+        SwingUtilities.invokeLater(() -> {
+            this.jTextArea.setText("bestmove " + searchResult);
+            redo();
+        });
     }
 }
@@ -0,0 +1,71 @@
+package com.chess.gui;
+
+import com.chess.engine.board.Move;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutionException;
+
+/*
+ * Een zoekopdracht op de achtergrond die ook op de tijd van de tegenstander kan lopen. isDone() is al waar zodra de
+ * zoekopdracht klaar is, maar done() draait pas later op de event dispatch thread. Een ponder hit in dat gat speelt
+ * de zet dus niet zelf: alleen done() of een ponder hit na done() speelt hem, en nooit twee keer.
+ * ponderHit(), abandon() en done() draaien allemaal op de event dispatch thread.
+ */
+public abstract class PonderWorker extends SwingWorker<Move, String> {
+
+    private final boolean pondering;
+    private boolean ponderHit;
+    private boolean abandoned;
+    private boolean finished;
+    private boolean moved;
+
+    protected PonderWorker(final boolean pondering) {
+        this.pondering = pondering;
+        this.ponderHit = false;
+        this.abandoned = false;
+        this.finished = false;
+        this.moved = false;
+    }
+
+    public void ponderHit() {
+        this.ponderHit = true;
+        if (this.finished) {
+            playMove();
+        }
+    }
+
+    public void abandon() {
+        this.abandoned = true;
+        stopSearch();
+    }
+
+    public boolean hasMoved() {
+        return this.moved;
+    }
+
+    @Override
+    protected final void done() {
+        this.finished = true;
+        if (!isCancelled() && !this.abandoned && (!this.pondering || this.ponderHit)) {
+            playMove();
+        }
+    }
+
+    private void playMove() {
+        if (this.moved) {
+            return;
+        }
+        this.moved = true;
+        try {
+            moveFound(get());
+        } catch (final InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //stopt de zoekopdracht, het resultaat wordt niet meer gespeeld
+    protected abstract void stopSearch();
+
+    //speelt de gevonden zet, op de event dispatch thread
+    protected abstract void moveFound(Move bestMove);
+}
@@ -4,11 +4,16 @@ import com.chess.engine.board.Board;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.Move;
 import com.chess.engine.board.Tile;
+import com.chess.engine.book.PolyglotBook;
+import com.chess.engine.nnue.NnueEvaluator;
+import com.chess.engine.nnue.NnueNetwork;
 import com.chess.engine.pieces.Piece;
 import com.chess.engine.player.MoveTransition;
 import com.chess.engine.player.Player;
+import com.chess.engine.player.ai.BookStrategy;
 import com.chess.engine.player.ai.StandardBoardEvaluator;
 import com.chess.engine.player.ai.StockAlphaBeta;
+import com.chess.engine.tablebase.Tablebases;
 import com.chess.fen.FenUtilities;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -62,6 +67,12 @@ public class Table extends Observable {
     private static final Table INSTANCE = new Table();
     private Move computerMove;
     private AIThinkTank thinkTank;
+    private AIThinkTank ponderTank;
+    private AIThinkTank abandonedSearch;
+    private StockAlphaBeta lastStrategy;
+    private PolyglotBook openingBook;
+    private NnueEvaluator neuralEvaluator;
+    private boolean ponder;
 
     private Table() {
         this.gameFrame = new JFrame("JChess");
@@ -80,6 +91,7 @@ public class Table extends Observable {
         this.gameSetup = new GameSetup(this.gameFrame, true);
         this.boardDirection = BoardDirection.NORMAL;
         this.highlightLegalMoves = true;
+        this.ponder = true;
         this.AIisDone = false;
         this.promotionPiece = "Queen";
         this.gameFrame.add(this.takenPiecesPanel, BorderLayout.WEST);
@@ -100,6 +112,10 @@ public class Table extends Observable {
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
         Table.get().getDebugPanel().redo();
+        if (Tablebases.INSTANCE.getLoadFailure() != null) {
+            JOptionPane.showMessageDialog(gameFrame, Tablebases.INSTANCE.getLoadFailure().getMessage() + ": " +
+                    Tablebases.INSTANCE.getLoadFailure().getCause().getMessage());
+        }
     }
 
     private DebugPanel getDebugPanel() {
@@ -154,6 +170,34 @@ public class Table extends Observable {
         });
         fileMenu.add(parseFEN);
 
+        final JMenuItem openBook = new JMenuItem("Load Opening Book", KeyEvent.VK_B);
+        openBook.addActionListener(e -> {
+            final JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION) {
+                try {
+                    openingBook = PolyglotBook.open(chooser.getSelectedFile().toPath());
+                } catch (final IOException ex) {
+                    JOptionPane.showMessageDialog(gameFrame, "Could not load the opening book: " + ex.getMessage());
+                }
+            }
+        });
+        fileMenu.add(openBook);
+
+        final JMenuItem openNetwork = new JMenuItem("Load Neural Network", KeyEvent.VK_W);
+        openNetwork.addActionListener(e -> {
+            final JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION) {
+                try {
+                    neuralEvaluator = new NnueEvaluator(NnueNetwork.load(chooser.getSelectedFile().toPath()));
+                    //de volgende zoekopdracht mag de evaluatiecache van de oude evaluator niet overnemen
+                    lastStrategy = null;
+                } catch (final IOException ex) {
+                    JOptionPane.showMessageDialog(gameFrame, "Could not load the network: " + ex.getMessage());
+                }
+            }
+        });
+        fileMenu.add(openNetwork);
+
         final JMenuItem exitMenuItem = new JMenuItem("Exit", KeyEvent.VK_E);
         exitMenuItem.addActionListener(e -> System.exit(0));
         fileMenu.add(exitMenuItem);
@@ -217,6 +261,15 @@ public class Table extends Observable {
         legalMoveHighlighterCheckbox.addActionListener(e -> highlightLegalMoves = legalMoveHighlighterCheckbox.isSelected());
         preferencesMenu.add(legalMoveHighlighterCheckbox);
 
+        final JCheckBoxMenuItem ponderCheckbox = new JCheckBoxMenuItem("Think on opponent's time", true);
+        ponderCheckbox.addActionListener(e -> {
+            ponder = ponderCheckbox.isSelected();
+            if (!ponder) {
+                stopPondering();
+            }
+        });
+        preferencesMenu.add(ponderCheckbox);
+
         preferencesMenu.addSeparator();
 
         final JMenuItem PromotionItem = new JMenuItem("Choose Promotion Piece",KeyEvent.VK_P);
@@ -312,12 +365,14 @@ public class Table extends Observable {
         Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
         Table.get().getBoardPanel().drawBoard(Board.createStandardBoard());
         Table.get().getDebugPanel().redo();
-        if (thinkTank != null) {
-            thinkTank.cancel(true);
-        }
+        stopThinking();
+        stopPondering();
+        this.lastStrategy = null;
     }
 
     private void undoLastMove() {
+        stopThinking();
+        stopPondering();
         final Move lastMove = Table.get().getMoveLog().removeMove(Table.get().getMoveLog().size() - 1);
         this.chessBoard = this.chessBoard.currentPlayer().unMakeMove(lastMove).getToBoard();
         this.computerMove = null;
@@ -344,11 +399,22 @@ public class Table extends Observable {
             if (Table.get().getGameSetup().isAIPlayer(Table.get().getGameBoard().currentPlayer()) &&
                     !Table.get().getGameBoard().currentPlayer().isInCheckMate() &&
                     !Table.get().getGameBoard().currentPlayer().isInStaleMate()) {
-                //create an AI thread
-                //execute ai work
-                System.out.println(Table.get().getGameBoard().currentPlayer() + " is set to AI, thinking....");
-                thinkTank = new AIThinkTank();
-                thinkTank.execute();
+                if (isPonderHit()) {
+                    //de computer heeft deze stelling al op de tijd van de tegenstander doorgerekend
+                    System.out.println(Table.get().getGameBoard().currentPlayer() + " ponder hit, continuing search....");
+                    thinkTank = ponderTank;
+                    ponderTank = null;
+                    thinkTank.ponderHit();
+                } else {
+                    //create an AI thread
+                    //execute ai work
+                    System.out.println(Table.get().getGameBoard().currentPlayer() + " is set to AI, thinking....");
+                    stopPondering();
+                    thinkTank = new AIThinkTank(Table.get().getGameBoard(), null, takeAbandonedSearch());
+                    thinkTank.execute();
+                }
+            } else if (arg == PlayerType.COMPUTER) {
+                startPondering();
             }
 
             if (Table.get().getGameBoard().currentPlayer().isInCheckMate()) {
@@ -365,50 +431,117 @@ public class Table extends Observable {
         }
     }
 
-    public class AIThinkTank extends SwingWorker<Move, String> {
+    private boolean isPonderHit() {
+        return ponderTank != null && Table.get().getMoveLog().size() > 0 &&
+                ponderTank.getPonderMove().equals(Table.get().getMoveLog().getMoves().get(Table.get().getMoveLog().size() - 1));
+    }
+
+    private void startPondering() {
+        stopPondering();
+        final Board board = Table.get().getGameBoard();
+        if (!this.ponder || this.lastStrategy == null || this.lastStrategy.getPrincipalVariation().size() < 2 ||
+                BoardUtils.isEndGame(board) || !Table.get().getGameSetup().isAIPlayer(board.currentPlayer().getOpponent())) {
+            return;
+        }
+        //het verwachte antwoord van de tegenstander is de tweede zet van de hoofdvariant
+        final Move expectedReply = this.lastStrategy.getPrincipalVariation().get(1);
+        final Move ponderMove = Move.MoveFactory.createMove(board, expectedReply.getCurrentCoordinate(),
+                expectedReply.getDestinationCoordinate());
+        final MoveTransition transition = board.currentPlayer().makeMove(ponderMove);
+        if (transition.getMoveStatus().isDone() && !BoardUtils.isEndGame(transition.getToBoard())) {
+            System.out.println(board.currentPlayer().getOpponent() + " pondering on " + ponderMove + "....");
+            this.ponderTank = new AIThinkTank(transition.getToBoard(), ponderMove, takeAbandonedSearch());
+            this.ponderTank.execute();
+        }
+    }
 
-        AIThinkTank() {
+    private void stopPondering() {
+        if (this.ponderTank != null) {
+            this.ponderTank.abandon();
+            this.abandonedSearch = this.ponderTank;
+            this.ponderTank = null;
+        }
+    }
 
+    //New Game en Undo stoppen de lopende zoekopdracht meteen, anders rekent hij op de achtergrond door
+    private void stopThinking() {
+        if (this.thinkTank != null && !this.thinkTank.hasMoved()) {
+            this.thinkTank.abandon();
+            this.abandonedSearch = this.thinkTank;
         }
+        this.thinkTank = null;
+    }
 
-        @Override
-        protected Move doInBackground() {
+    private AIThinkTank takeAbandonedSearch() {
+        final AIThinkTank previousSearch = this.abandonedSearch;
+        this.abandonedSearch = null;
+        return previousSearch;
+    }
 
-            AIisDone = isDone();
-            int numPieces = Table.get().getGameBoard().getWhitePieces().size() +
-                    Table.get().getGameBoard().getBlackPieces().size();
+    public class AIThinkTank extends PonderWorker {
+
+        private final Board searchBoard;
+        private final Move ponderMove;
+        private final AIThinkTank previousSearch;
+        private final StockAlphaBeta strategy;
+
+        AIThinkTank(final Board searchBoard,
+                    final Move ponderMove,
+                    final AIThinkTank previousSearch) {
+            super(ponderMove != null);
+            this.searchBoard = searchBoard;
+            this.ponderMove = ponderMove;
+            this.previousSearch = previousSearch;
+            int numPieces = searchBoard.getWhitePieces().size() +
+                    searchBoard.getBlackPieces().size();
             //dit zorgt ervoor dat bij weinig stukken op het bord het ab algoritme dieper graaft
             int bonusDepth = Math.min(4, 1 + Math.round((float) 32 / numPieces));
+            final int searchDepth = Table.get().getGameSetup().getSearchDepth() + bonusDepth;
+            //na een ponder miss worden de opgewarmde tabellen van de vorige zoekopdracht hergebruikt
+            this.strategy = lastStrategy != null ? lastStrategy.withSearchDepth(searchDepth) :
+                    neuralEvaluator != null ? new StockAlphaBeta(searchDepth, neuralEvaluator) : new StockAlphaBeta(searchDepth);
+            this.strategy.addSearchListener(Table.get().getDebugPanel());
+            lastStrategy = this.strategy;
+        }
 
-            final StockAlphaBeta strategy =
-                    new StockAlphaBeta(Table.get().getGameSetup().getSearchDepth() + bonusDepth);
-            strategy.addObserver(Table.get().getDebugPanel());
-
-
-            return strategy.execute(
-                    Table.get().getGameBoard());
+        Move getPonderMove() {
+            return this.ponderMove;
         }
 
+        @Override
+        protected void stopSearch() {
+            this.strategy.stop();
+        }
 
         @Override
-        public void done() {
-
-            try {
-                final Move bestMove = get();
-
-                Table.get().updateComputerMove(bestMove);
-                Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getToBoard());
-                Table.get().getMoveLog().addMoves(bestMove);
-                Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
-                Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
-                Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
-                Table.get().getDebugPanel().redo();
-                Table.get().moveMadeUpdate(PlayerType.COMPUTER);
-                AIisDone = isDone();
-            } catch (final Exception e) {
-                e.printStackTrace();
+        protected Move doInBackground() {
+
+            AIisDone = isDone();
+            if (this.previousSearch != null) {
+                //wacht tot de afgebroken zoekopdracht gestopt is, zodat de tabellen niet door twee threads gebruikt worden
+                try {
+                    this.previousSearch.get();
+                } catch (final Exception e) {
+                    //het resultaat van een afgebroken zoekopdracht is niet nodig
+                }
+            }
+            if (openingBook != null) {
+                return new BookStrategy(openingBook, this.strategy).execute(this.searchBoard);
             }
+            return this.strategy.execute(this.searchBoard);
+        }
 
+        @Override
+        protected void moveFound(final Move bestMove) {
+            Table.get().updateComputerMove(bestMove);
+            Table.get().updateGameBoard(Table.get().getGameBoard().currentPlayer().makeMove(bestMove).getToBoard());
+            Table.get().getMoveLog().addMoves(bestMove);
+            Table.get().getGameHistoryPanel().redo(Table.get().getGameBoard(), Table.get().getMoveLog());
+            Table.get().getTakenPiecesPanel().redo(Table.get().getMoveLog());
+            Table.get().getBoardPanel().drawBoard(Table.get().getGameBoard());
+            Table.get().getDebugPanel().redo();
+            Table.get().moveMadeUpdate(PlayerType.COMPUTER);
+            AIisDone = isDone();
         }
     }
 
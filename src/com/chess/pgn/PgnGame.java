@@ -0,0 +1,53 @@
+package com.chess.pgn;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public final class PgnGame {
+
+    private final Map<String, String> tags;
+    private final List<String> moves;
+
+    PgnGame(final Map<String, String> tags,
+            final List<String> moves) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.moves = Collections.unmodifiableList(moves);
+    }
+
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    //de zetten van de hoofdvariant in SAN, zonder zetnummers, commentaar en varianten
+    public List<String> getMoves() {
+        return this.moves;
+    }
+
+    public String getResult() {
+        final String result = this.tags.get("Result");
+        return result != null ? result : "*";
+    }
+
+    //Elo uit de tags, 0 als die ontbreekt of geen getal is
+    public int getElo(final boolean white) {
+        final String elo = this.tags.get(white ? "WhiteElo" : "BlackElo");
+        if (elo == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(elo.trim());
+        } catch (final NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.get("White") + " - " + this.tags.get("Black") + " " + getResult();
+    }
+}
@@ -0,0 +1,141 @@
+package com.chess.pgn;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Leest partijen een voor een uit een PGN-bestand, zodat ook bestanden van gigabytes niet in het geheugen hoeven.
+ * Een partij loopt van de tags tot de volgende tagregel; commentaar tussen {} of na ;, varianten tussen (),
+ * NAG's ($1) en zetnummers worden overgeslagen.
+ */
+public final class PgnReader implements Closeable {
+
+    private final BufferedReader reader;
+    private String pendingLine;
+
+    public PgnReader(final BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static PgnReader open(final Path file) throws IOException {
+        //ISO-8859-1 kan elke byte lezen, veel oude PGN's zijn geen geldige UTF-8
+        return new PgnReader(Files.newBufferedReader(file, StandardCharsets.ISO_8859_1));
+    }
+
+    //de volgende partij, of null aan het einde van het bestand
+    public PgnGame next() throws IOException {
+        final Map<String, String> tags = new HashMap<>();
+        final StringBuilder moveText = new StringBuilder();
+        String line;
+        while ((line = nextLine()) != null) {
+            final String trimmed = line.trim();
+            if (trimmed.startsWith("[") && !inComment(moveText)) {
+                if (moveText.length() > 0) {
+                    this.pendingLine = line;
+                    break;
+                }
+                parseTag(trimmed, tags);
+            } else if (!trimmed.isEmpty()) {
+                moveText.append(trimmed).append('\n');
+            }
+        }
+        if (tags.isEmpty() && moveText.length() == 0) {
+            return null;
+        }
+        return new PgnGame(tags, parseMoveText(moveText));
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    private String nextLine() throws IOException {
+        if (this.pendingLine != null) {
+            final String line = this.pendingLine;
+            this.pendingLine = null;
+            return line;
+        }
+        return this.reader.readLine();
+    }
+
+    private static void parseTag(final String line,
+                                 final Map<String, String> tags) {
+        final int space = line.indexOf(' ');
+        final int firstQuote = line.indexOf('"');
+        final int lastQuote = line.lastIndexOf('"');
+        if (space > 1 && firstQuote > space && lastQuote > firstQuote) {
+            tags.put(line.substring(1, space), line.substring(firstQuote + 1, lastQuote));
+        }
+    }
+
+    //een { zonder } betekent dat de tagregel eigenlijk commentaar is
+    private static boolean inComment(final CharSequence moveText) {
+        int depth = 0;
+        for (int i = 0; i < moveText.length(); i++) {
+            if (moveText.charAt(i) == '{') {
+                depth++;
+            } else if (moveText.charAt(i) == '}') {
+                depth--;
+            }
+        }
+        return depth > 0;
+    }
+
+    static List<String> parseMoveText(final CharSequence moveText) {
+        final List<String> moves = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        int variationDepth = 0;
+        boolean braceComment = false;
+        boolean lineComment = false;
+        for (int i = 0; i <= moveText.length(); i++) {
+            final char c = i < moveText.length() ? moveText.charAt(i) : ' ';
+            if (braceComment) {
+                braceComment = c != '}';
+            } else if (lineComment) {
+                lineComment = c != '\n';
+            } else if (c == '{') {
+                braceComment = true;
+            } else if (c == ';') {
+                lineComment = true;
+            } else if (c == '(') {
+                variationDepth++;
+            } else if (c == ')') {
+                variationDepth = Math.max(0, variationDepth - 1);
+            } else if (variationDepth > 0) {
+                continue;
+            } else if (Character.isWhitespace(c) || c == '.') {
+                addMove(token, moves);
+                continue;
+            } else {
+                token.append(c);
+                continue;
+            }
+            addMove(token, moves);
+        }
+        return moves;
+    }
+
+    private static void addMove(final StringBuilder token,
+                                final List<String> moves) {
+        //annotaties als ! en ?? horen niet bij de zet
+        final String move = token.toString().replaceAll("[!?]+$", "");
+        token.setLength(0);
+        if (move.isEmpty() || move.charAt(0) == '$' || Character.isDigit(move.charAt(0)) || move.equals("*")) {
+            //zetnummers, NAG's en uitslagen; rokade met nullen (0-0) begint ook met een cijfer
+            if (move.startsWith("0-0")) {
+                moves.add(move.replace('0', 'O'));
+            }
+            return;
+        }
+        moves.add(move);
+    }
+}
@@ -0,0 +1,106 @@
+package com.chess.pgn;
+
+import com.chess.engine.board.Board;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.MoveFactory;
+import com.chess.engine.pieces.Piece.PieceType;
+
+public class PgnUtilities {
+
+    private static final String PIECE_LETTERS = "NBRQK";
+    private static final PieceType[] PIECE_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
+    private PgnUtilities() {
+        throw new RuntimeException("Not Instantiable!");
+    }
+
+    //zoekt de legale zet bij een zet in SAN (Nf3, exd5, e8=Q, O-O-O, Rad1+); de null move als er geen past
+    public static Move createMoveFromSAN(final Board board,
+                                         final String san) {
+        String text = san.replaceAll("[+#!?]+$", "");
+        if (text.startsWith("O-O") || text.startsWith("0-0")) {
+            return findCastleMove(board, text.replace('0', 'O').equals("O-O-O"));
+        }
+        PieceType promotionType = null;
+        final int promotionIndex = text.indexOf('=');
+        if (promotionIndex >= 0 && promotionIndex + 1 < text.length()) {
+            promotionType = pieceType(text.charAt(promotionIndex + 1));
+            text = text.substring(0, promotionIndex);
+        } else if (text.length() > 2 && Character.isLowerCase(text.charAt(0)) && pieceType(text.charAt(text.length() - 1)) != null) {
+            //e8Q zonder =
+            promotionType = pieceType(text.charAt(text.length() - 1));
+            text = text.substring(0, text.length() - 1);
+        }
+        final PieceType movedType = pieceType(text.charAt(0)) != null ? pieceType(text.charAt(0)) : PieceType.PAWN;
+        if (movedType != PieceType.PAWN) {
+            text = text.substring(1);
+        }
+        text = text.replace("x", "").replace("-", "").replace(":", "");
+        if (text.length() < 2) {
+            return MoveFactory.getNullMove();
+        }
+        final int destination = coordinate(text.substring(text.length() - 2));
+        final String disambiguation = text.substring(0, text.length() - 2);
+        if (destination < 0) {
+            return MoveFactory.getNullMove();
+        }
+        Move match = MoveFactory.getNullMove();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.getDestinationCoordinate() != destination || move.isCastlingMove() ||
+                    move.getMovedPiece().getPieceType() != movedType ||
+                    !matchesDisambiguation(move.getCurrentCoordinate(), disambiguation) ||
+                    promotionType(move) != promotionType ||
+                    !board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                continue;
+            }
+            if (match != MoveFactory.getNullMove()) {
+                //dubbelzinnige SAN
+                return MoveFactory.getNullMove();
+            }
+            match = move;
+        }
+        return match;
+    }
+
+    private static Move findCastleMove(final Board board,
+                                       final boolean queenSide) {
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            if (move.isCastlingMove() &&
+                    (move.getDestinationCoordinate() % BoardUtils.NUM_TILES_PER_ROW == 2) == queenSide &&
+                    board.currentPlayer().makeMove(move).getMoveStatus().isDone()) {
+                return move;
+            }
+        }
+        return MoveFactory.getNullMove();
+    }
+
+    private static boolean matchesDisambiguation(final int from,
+                                                 final String disambiguation) {
+        final String square = BoardUtils.INSTANCE.getPositionAtCoordinate(from);
+        for (final char c : disambiguation.toCharArray()) {
+            if (square.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static PieceType promotionType(final Move move) {
+        return move instanceof Move.PawnPromotion ? ((Move.PawnPromotion) move).getPromotionPiece().getPieceType() : null;
+    }
+
+    private static PieceType pieceType(final char letter) {
+        final int index = PIECE_LETTERS.indexOf(letter);
+        return index >= 0 ? PIECE_TYPES[index] : null;
+    }
+
+    private static int coordinate(final String square) {
+        if (square.charAt(0) < 'a' || square.charAt(0) > 'h' || square.charAt(1) < '1' || square.charAt(1) > '8') {
+            return -1;
+        }
+        return BoardUtils.INSTANCE.getCoordinateAtPosition(square);
+    }
+}